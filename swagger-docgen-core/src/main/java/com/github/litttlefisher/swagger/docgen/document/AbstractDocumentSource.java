@@ -3,15 +3,15 @@ package com.github.litttlefisher.swagger.docgen.document;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Type;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,10 +23,12 @@ import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import com.fasterxml.jackson.module.jaxb.JaxbAnnotationModule;
 import com.fasterxml.jackson.module.jaxb.JaxbAnnotationModule.Priority;
 import com.github.jknack.handlebars.Handlebars;
@@ -38,9 +40,11 @@ import com.github.litttlefisher.swagger.docgen.enums.Output;
 import com.github.litttlefisher.swagger.docgen.exception.GenerateException;
 import com.github.litttlefisher.swagger.docgen.jackson.EnhancedSwaggerModule;
 import com.github.litttlefisher.swagger.docgen.reader.AbstractReader;
+import com.github.litttlefisher.swagger.docgen.reader.CachingModelConverter;
 import com.github.litttlefisher.swagger.docgen.reader.ClassSwaggerReader;
 import com.github.litttlefisher.swagger.docgen.reader.ModelJavaDocConverter;
 import com.github.litttlefisher.swagger.docgen.reader.ModelModifier;
+import com.github.litttlefisher.swagger.docgen.util.OutputFileUtils;
 import com.google.common.collect.Maps;
 
 import io.swagger.annotations.Api;
@@ -87,6 +91,12 @@ public abstract class AbstractDocumentSource {
     /** jackson对象 */
     private ObjectMapper mapper = Json.mapper();
     private boolean isSorted = false;
+    /** 需要解析的class，为空时在{@link #loadDocuments()}中扫描 */
+    private Set<Class<?>> validClasses;
+    /** 本次解析注册到{@link ModelConverters}中的转换器 */
+    private final List<ModelConverter> registeredConverters = new ArrayList<>();
+    /** 本次解析是否设置了{@link FilterFactory}中的过滤器 */
+    private boolean filterRegistered;
 
     public AbstractDocumentSource(ApiSource apiSource) {
         this.outputPath = apiSource.getOutputPath();
@@ -119,12 +129,31 @@ public abstract class AbstractDocumentSource {
         this.apiSource = apiSource;
     }
 
+    /**
+     * 预先扫描需要解析的class，扫描不依赖swagger的全局状态，可以在{@link #loadDocuments()}之前单独执行
+     */
+    public void loadValidClasses() {
+        validClasses = getValidClasses();
+    }
+
     public void loadDocuments() throws GenerateException {
         ClassSwaggerReader reader = resolveApiReader();
 
         loadSwaggerExtensions(apiSource);
 
-        swagger = reader.read(getValidClasses());
+        if (validClasses == null) {
+            loadValidClasses();
+        }
+        // model解析缓存只在本次解析中有效，放在转换链的最前面
+        CachingModelConverter modelCache = new CachingModelConverter();
+        registerModelConverter(modelCache);
+        try {
+            swagger = reader.read(validClasses);
+        } finally {
+            ModelConverters.getInstance().removeConverter(modelCache);
+            registeredConverters.remove(modelCache);
+            modelCache.logStatistics();
+        }
 
         swagger = removeBasePathFromEndpoints(swagger, apiSource.isRemoveBasePathFromEndpoints());
 
@@ -139,6 +168,7 @@ public abstract class AbstractDocumentSource {
             try {
                 log.debug(String.format("Setting filter configuration: %s", filterClassName));
                 FilterFactory.setFilter((SwaggerSpecFilter) Class.forName(filterClassName).newInstance());
+                filterRegistered = true;
             } catch (Exception e) {
                 throw new GenerateException("Cannot load: " + filterClassName, e);
             }
@@ -181,9 +211,9 @@ public abstract class AbstractDocumentSource {
     }
 
     public void toSwaggerDocuments(String outputFormats, String fileName, String encoding) throws GenerateException {
-        mapper.configure(SerializationFeature.WRITE_EMPTY_JSON_ARRAYS, false);
-
+        // 先复制再修改配置，避免改动全局共享的Json.mapper()
         mapper = mapper.copy();
+        mapper.configure(SerializationFeature.WRITE_EMPTY_JSON_ARRAYS, false);
 
         if (jsonExampleValues) {
             mapper.addMixIn(Property.class, PropertyExampleMixIn.class);
@@ -211,27 +241,82 @@ public abstract class AbstractDocumentSource {
             }
         }
 
+        Map<Output, ObjectWriter> writers = new EnumMap<>(Output.class);
         for (String format : outputFormats.split(SymbolConstant.COMMA)) {
             try {
                 Output output = Output.valueOf(format.toLowerCase());
-                switch (output) {
-                    case json:
-                        ObjectWriter jsonWriter = mapper.writer(new DefaultPrettyPrinter());
-                        FileUtils.write(new File(dir, fileName + SymbolConstant.PERIOD + output.name()),
-                            jsonWriter.writeValueAsString(swagger), encoding);
-                        break;
-                    case yaml:
-                        FileUtils.write(new File(dir, fileName + SymbolConstant.PERIOD + output.name()),
-                            Yaml.pretty().writeValueAsString(swagger), encoding);
-                        break;
-                    default:
-                        throw new GenerateException(
-                            String.format("Declared output format [%s] is not supported.", format));
-                }
+                writers.put(output, createSwaggerWriter(output));
             } catch (Exception e) {
                 throw new GenerateException(String.format("Declared output format [%s] is not supported.", format));
             }
         }
+
+        // swagger只序列化一次，各格式都从同一个序列化结果写入，输出内容与同时输出了哪些格式无关
+        TokenBuffer content = serializeSwagger();
+        for (Map.Entry<Output, ObjectWriter> entry : writers.entrySet()) {
+            File file = new File(dir, fileName + SymbolConstant.PERIOD + entry.getKey().name());
+            try {
+                writeSwagger(entry.getKey(), entry.getValue(), file, encoding, content);
+            } catch (IOException e) {
+                throw new GenerateException(String.format("Write swagger file [%s] failed.", file), e);
+            }
+        }
+    }
+
+    /**
+     * 创建各格式swagger文件的writer，新增格式时在此添加
+     *
+     * @param output swagger文件格式
+     * @return writer
+     */
+    private ObjectWriter createSwaggerWriter(Output output) {
+        switch (output) {
+            case json:
+                return mapper.writer(new DefaultPrettyPrinter());
+            case yaml:
+                return Yaml.pretty();
+            default:
+                throw new GenerateException(String.format("Declared output format [%s] is not supported.", output));
+        }
+    }
+
+    /**
+     * 使用json的序列化配置将swagger序列化为jackson的token流，供各格式共用；
+     * 使用token流而不是json树，避免BigDecimal在json树中被改写
+     *
+     * @return 序列化结果
+     */
+    private TokenBuffer serializeSwagger() {
+        TokenBuffer buffer = new TokenBuffer(mapper, false);
+        try {
+            mapper.writeValue(buffer, swagger);
+        } catch (IOException e) {
+            throw new GenerateException("Serialize swagger failed.", e);
+        }
+        return buffer;
+    }
+
+    /**
+     * 通过jackson的generator将序列化结果流式写入文件，不在内存中生成完整的字符串，内容没有变化时不替换原文件
+     *
+     * @param output swagger文件格式
+     * @param writer json或yaml的writer
+     * @param file swagger文件
+     * @param encoding 字符集，为空时使用系统默认字符集
+     * @param content swagger的序列化结果
+     * @throws IOException 写文件异常
+     */
+    private void writeSwagger(Output output, ObjectWriter writer, File file, String encoding, TokenBuffer content)
+        throws IOException {
+        Charset charset = encoding == null ? Charset.defaultCharset() : Charset.forName(encoding);
+        OutputFileUtils.write(file, charset, out -> {
+            JsonGenerator generator = writer.getFactory().createGenerator(out);
+            // yaml不支持写入jsonExampleValues输出的原始json
+            try (JsonGenerator target = output == Output.json ? generator :
+                new StructuredRawValueGenerator(generator, mapper)) {
+                writer.writeValue(target, content);
+            }
+        });
     }
 
     public void loadModelModifier() throws GenerateException {
@@ -275,14 +360,14 @@ public abstract class AbstractDocumentSource {
             }
         }
 
-        ModelConverters.getInstance().addConverter(modelModifier);
+        registerModelConverter(modelModifier);
     }
 
     /**
      * 加载javadoc对象转换器
      */
     public void loadModelJavaDocConverter() {
-        ModelConverters.getInstance().addConverter(new ModelJavaDocConverter(Json.mapper()));
+        registerModelConverter(new ModelJavaDocConverter(Json.mapper(), apiSource.getJavaDocReader()));
     }
 
     /**
@@ -299,7 +384,7 @@ public abstract class AbstractDocumentSource {
                 final Class<?> modelConverterClass = Class.forName(modelConverter);
                 if (ModelConverter.class.isAssignableFrom(modelConverterClass)) {
                     final ModelConverter modelConverterInstance = (ModelConverter) modelConverterClass.newInstance();
-                    ModelConverters.getInstance().addConverter(modelConverterInstance);
+                    registerModelConverter(modelConverterInstance);
                 } else {
                     throw new GenerateException(String
                         .format("Class %s has to be a subclass of %s", modelConverterClass.getName(),
@@ -315,6 +400,29 @@ public abstract class AbstractDocumentSource {
         }
     }
 
+    /**
+     * 注册model转换器到全局的{@link ModelConverters}中，并记录下来以便{@link #resetGlobalState()}时移除
+     *
+     * @param modelConverter model转换器
+     */
+    private void registerModelConverter(ModelConverter modelConverter) {
+        ModelConverters.getInstance().addConverter(modelConverter);
+        registeredConverters.add(modelConverter);
+    }
+
+    /**
+     * 清理本次解析注册到swagger全局单例中的状态（{@link ModelConverters}中的转换器、{@link FilterFactory}中的过滤器），
+     * 使多个apiSource之间的解析结果互不影响
+     */
+    public void resetGlobalState() {
+        registeredConverters.forEach(ModelConverters.getInstance()::removeConverter);
+        registeredConverters.clear();
+        if (filterRegistered) {
+            FilterFactory.setFilter(null);
+            filterRegistered = false;
+        }
+    }
+
     /**
      * 加载需要过滤的class类
      */
@@ -378,9 +486,6 @@ public abstract class AbstractDocumentSource {
         log.info("Writing doc to " + outputPath + "...");
 
         try {
-            FileOutputStream fileOutputStream = new FileOutputStream(outputPath);
-            OutputStreamWriter writer = new OutputStreamWriter(fileOutputStream, encoding);
-
             TemplatePath tp = Utils.parseTemplateUrl(templatePath);
 
             Handlebars handlebars = new Handlebars(tp.getLoader());
@@ -388,8 +493,8 @@ public abstract class AbstractDocumentSource {
 
             Template template = handlebars.compile(tp.getName());
 
-            template.apply(swagger, writer);
-            writer.close();
+            OutputFileUtils.write(new File(outputPath), Charset.forName(encoding),
+                writer -> template.apply(swagger, writer));
             log.info("Done!");
         } catch (IOException e) {
             throw new GenerateException(e);
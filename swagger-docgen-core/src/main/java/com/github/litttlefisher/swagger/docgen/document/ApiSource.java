@@ -6,6 +6,7 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -13,17 +14,14 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
-import org.reflections.Reflections;
-import org.reflections.util.ClasspathHelper;
-import org.reflections.util.ConfigurationBuilder;
 import org.springframework.core.annotation.AnnotationUtils;
 
-import com.github.litttlefisher.swagger.docgen.constant.SymbolConstant;
 import com.github.litttlefisher.swagger.docgen.document.properties.MavenParameterInitialization;
 import com.github.litttlefisher.swagger.docgen.enums.DocumentSourceType;
 import com.github.litttlefisher.swagger.docgen.enums.Output;
 import com.github.litttlefisher.swagger.docgen.exception.GenerateException;
 import com.github.litttlefisher.swagger.docgen.reader.JavaDocReader;
+import com.github.litttlefisher.swagger.docgen.scan.ClasspathIndex;
 import com.google.common.base.Strings;
 
 import io.swagger.annotations.SwaggerDefinition;
@@ -31,6 +29,7 @@ import io.swagger.models.Contact;
 import io.swagger.models.ExternalDocs;
 import io.swagger.models.Info;
 import io.swagger.models.License;
+import io.swagger.models.Tag;
 import io.swagger.util.BaseReaderUtils;
 import lombok.Builder;
 import lombok.Data;
@@ -118,6 +117,15 @@ public class ApiSource {
     /** 是否解析javadoc */
     private boolean javadocEnabled;
 
+    /** 并行解析Controller或资源类的线程数，小于等于1时串行解析 */
+    private int readerThreads;
+
+    /**
+     * 增量解析的状态文件，配置后只重新解析字节码或依赖的类发生变化的Controller，多个apiSource需要使用不同的文件；
+     * 只支持SpringMvc，开启javadoc解析时不生效
+     */
+    private String buildStateFile;
+
     private boolean useJAXBAnnotationProcessor;
 
     private boolean useJAXBAnnotationProcessorAsPrimary = true;
@@ -151,6 +159,18 @@ public class ApiSource {
     /** contextClassLoader */
     private ClassLoader contextClassLoader;
 
+    /** classpath注解索引，多个apiSource可以共享同一个索引，使每个classpath条目在一次构建中只扫描一次 */
+    private ClasspathIndex classpathIndex;
+
+    /** 生成swagger的插件版本，由插件设置，插件版本变化时增量解析的状态失效 */
+    private String pluginVersion;
+
+    /** {@link SwaggerDefinition}中定义的tag，key为tag名称 */
+    private Map<String, Tag> definitionTags;
+
+    /** javadoc仓库，开启javadoc解析时在{@link #initJavaDoc(String)}中创建，只在本apiSource的解析过程中使用 */
+    private JavaDocReader javaDocReader;
+
     /**
      * 加载所有被clazz注解了的类
      *
@@ -161,24 +181,27 @@ public class ApiSource {
         // 初始化ClassLoader
         initClassLoader();
 
-        List<String> prefixes = new ArrayList<>();
-        if (getLocations() == null) {
-            prefixes.add(StringUtils.EMPTY);
+        List<String> packageNames = new ArrayList<>();
+        if (getLocations() == null || getLocations().isEmpty()) {
+            // 未配置locations时扫描classpath中所有的class目录
+            packageNames.add(StringUtils.EMPTY);
         } else {
             // 不考虑解析location可以使用通配符，由于考虑使用spring的解析器，但是该工程是作为插件的，插件扫描不了应用里的依赖包，后续提供ApiSource接口，由应用自己配置所需的参数
-            prefixes.addAll(getLocations());
+            getLocations().stream().map(StringUtils::trim).forEach(packageNames::add);
         }
 
-        // 使用reflection包解析都有哪些类被加了clazz注解
+        // 查询classpath注解索引，得到所有location下都有哪些类被加了clazz注解
+        if (classpathIndex == null) {
+            classpathIndex = new ClasspathIndex();
+        }
 
         // 继承的类不进行加载
-        ConfigurationBuilder configurationBuilder = new ConfigurationBuilder();
-        prefixes.forEach(prefix -> configurationBuilder.setUrls(ClasspathHelper.forPackage(prefix)));
-        Set<Class<?>> classes = new Reflections(configurationBuilder).getTypesAnnotatedWith(clazz, true);
+        Set<Class<?>> classes = classpathIndex.getTypesAnnotatedWith(packageNames, clazz, true, contextClassLoader);
 
         if (!skipInheritingClasses) {
             // 继承的类进行加载
-            Set<Class<?>> inherited = new Reflections(configurationBuilder).getTypesAnnotatedWith(clazz);
+            Set<Class<?>> inherited = classpathIndex.getTypesAnnotatedWith(packageNames, clazz, false,
+                contextClassLoader);
             classes.addAll(inherited);
         }
         return classes;
@@ -276,6 +299,31 @@ public class ApiSource {
         }
     }
 
+    private void setDefinitionTagsFromAnnotation() {
+        Map<String, Tag> tags = new HashMap<>();
+        for (Class<?> aClass : getValidClasses(SwaggerDefinition.class)) {
+            SwaggerDefinition swaggerDefinition = AnnotationUtils.findAnnotation(aClass, SwaggerDefinition.class);
+            for (io.swagger.annotations.Tag tag : swaggerDefinition.tags()) {
+                if (!tag.name().isEmpty()) {
+                    tags.put(tag.name(), new Tag().name(tag.name()).description(tag.description()));
+                }
+            }
+        }
+        definitionTags = tags;
+    }
+
+    /**
+     * 获取{@link SwaggerDefinition}中定义的tag，只扫描一次
+     *
+     * @return tag，key为tag名称
+     */
+    public Map<String, Tag> getDefinitionTagsFromAnnotation() {
+        if (definitionTags == null) {
+            setDefinitionTagsFromAnnotation();
+        }
+        return definitionTags;
+    }
+
     public String getBasePathFromAnnotation() {
         if (basePath == null) {
             setBasePathFromAnnotation();
@@ -303,14 +351,15 @@ public class ApiSource {
 
     /**
      * 解析javadoc信息
+     *
+     * @param sourceEncoding java源文件的字符集，一般为project.build.sourceEncoding，为空时使用UTF-8
      */
-    public void initJavaDoc() {
+    public void initJavaDoc(String sourceEncoding) {
         if (isJavadocEnabled()) {
-            List<String> compileClasspathElements = MavenParameterInitialization.getCompileClasspathElements();
-            List<File> dependencies = compileClasspathElements.stream().map(
-                input -> StringUtils.replaceAll(input, ".jar", SymbolConstant.MINUS + JavaDocReader.SOURCE_JAR_SUFFIX))
-                .map(File::new).filter(File::exists).filter(File::isFile).collect(Collectors.toList());
-            JavaDocReader.init(MavenParameterInitialization.getBuildDirectory(), dependencies);
+            // 只记录classpath，source jar包在解析到具体的类时才会被读取
+            List<File> compileClasspathElements = MavenParameterInitialization.getCompileClasspathElements().stream()
+                .map(File::new).collect(Collectors.toList());
+            javaDocReader = new JavaDocReader(compileClasspathElements, sourceEncoding);
         }
     }
 }
\ No newline at end of file
@@ -36,6 +36,8 @@ public class JaxrsDocumentSource extends AbstractDocumentSource {
             JaxrsReader reader = new JaxrsReader(swagger);
             reader.setTypesToSkip(this.typesToSkip);
             reader.setOperationIdFormat(this.apiSource.getOperationIdFormat());
+            reader.setReaderThreads(apiSource.getReaderThreads());
+            reader.setDefinitionTags(apiSource.getDefinitionTagsFromAnnotation());
             return reader;
         } else {
             ClassSwaggerReader customApiReader = getCustomApiReader(customReaderClassName);
@@ -1,21 +1,40 @@
 package com.github.litttlefisher.swagger.docgen.document;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 
+import org.apache.commons.io.IOUtils;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.litttlefisher.swagger.docgen.exception.GenerateException;
 import com.github.litttlefisher.swagger.docgen.reader.AbstractReader;
 import com.github.litttlefisher.swagger.docgen.reader.ClassSwaggerReader;
+import com.github.litttlefisher.swagger.docgen.reader.IncrementalBuildState;
 import com.github.litttlefisher.swagger.docgen.reader.SpringMvcApiReader;
 
+import io.swagger.util.Json;
+import lombok.extern.slf4j.Slf4j;
+
 /**
  * 扫描Spring Controller相关注解来生成swagger
  *
  * @author littlefisher
  */
+@Slf4j
 public class SpringMvcApiDocumentSource extends AbstractDocumentSource {
 
     public SpringMvcApiDocumentSource(ApiSource apiSource, String encoding) {
@@ -43,6 +62,17 @@ public class SpringMvcApiDocumentSource extends AbstractDocumentSource {
             reader.setTypesToSkip(this.typesToSkip);
             reader.setOperationIdFormat(this.apiSource.getOperationIdFormat());
             reader.setJavadocEnabled(apiSource.isJavadocEnabled());
+            reader.setJavaDocReader(apiSource.getJavaDocReader());
+            reader.setReaderThreads(apiSource.getReaderThreads());
+            if (apiSource.getBuildStateFile() != null) {
+                if (apiSource.isJavadocEnabled()) {
+                    // javadoc的变化不会体现在字节码中
+                    log.info("Incremental reading is disabled because javadoc is enabled");
+                } else {
+                    reader.setBuildState(
+                        new IncrementalBuildState(new File(apiSource.getBuildStateFile()), getBuildStateFingerprint()));
+                }
+            }
             return reader;
         } else {
             ClassSwaggerReader customApiReader = getCustomApiReader(customReaderClassName);
@@ -53,4 +83,51 @@ public class SpringMvcApiDocumentSource extends AbstractDocumentSource {
         }
     }
 
+    /**
+     * 影响解析结果的配置的指纹，配置变化时增量解析的状态失效
+     *
+     * @return 指纹
+     */
+    private String getBuildStateFingerprint() {
+        ObjectMapper mapper = Json.mapper();
+        String modelSubstitutes = null;
+        if (apiSource.getModelSubstitute() != null) {
+            try (InputStream in = getClass().getResourceAsStream(apiSource.getModelSubstitute())) {
+                modelSubstitutes = in == null ? null : IOUtils.toString(in, StandardCharsets.UTF_8.name());
+            } catch (IOException e) {
+                throw new GenerateException(e);
+            }
+        }
+        return Arrays.asList(apiSource.getPluginVersion(), apiSource.getOperationIdFormat(), modelSubstitutes,
+            apiSource.getTypesToSkip(), apiSource.getApiModelPropertyAccessExclusions(),
+            hashClasses(apiSource.getModelConverters()), hashClasses(apiSource.getSwaggerExtensions()),
+            apiSource.isUseJAXBAnnotationProcessor(),
+            apiSource.isUseJAXBAnnotationProcessorAsPrimary(),
+            Arrays.stream(MapperFeature.values()).filter(mapper::isEnabled).collect(Collectors.toList()),
+            mapper.getSerializationConfig().getSerializationFeatures(),
+            mapper.getDeserializationConfig().getDeserializationFeatures()).stream().map(Objects::toString).collect(
+            Collectors.joining("|"));
+    }
+
+    /**
+     * 自定义的转换器、扩展等类的字节码摘要，类的实现变化时同样使增量解析的状态失效
+     *
+     * @param classNames 类名
+     * @return 字节码摘要，key为类名
+     */
+    private Map<String, String> hashClasses(List<String> classNames) {
+        if (classNames == null) {
+            return Collections.emptyMap();
+        }
+        List<Class<?>> classes = new ArrayList<>();
+        for (String className : classNames) {
+            try {
+                classes.add(Class.forName(className));
+            } catch (ClassNotFoundException e) {
+                throw new GenerateException(String.format("Could not find class %s", className), e);
+            }
+        }
+        return IncrementalBuildState.hashClasses(classes);
+    }
+
 }
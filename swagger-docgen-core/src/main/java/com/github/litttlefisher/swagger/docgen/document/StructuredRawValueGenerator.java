@@ -0,0 +1,62 @@
+package com.github.litttlefisher.swagger.docgen.document;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.util.JsonGeneratorDelegate;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 将原始json值解析后以结构化的值写入，用于不支持写入原始内容的格式（如yaml）
+ * <p>
+ * {@link PropertyExampleMixIn}将example作为原始json写入，原始内容不是合法的json时作为字符串写入
+ *
+ * @author littlefisher
+ */
+class StructuredRawValueGenerator extends JsonGeneratorDelegate {
+
+    /** 解析原始json */
+    private final ObjectMapper mapper;
+
+    StructuredRawValueGenerator(JsonGenerator delegate, ObjectMapper mapper) {
+        super(delegate);
+        this.mapper = mapper;
+    }
+
+    @Override
+    public void writeRawValue(String text) throws IOException {
+        writeStructured(text);
+    }
+
+    @Override
+    public void writeRawValue(String text, int offset, int len) throws IOException {
+        writeStructured(text.substring(offset, offset + len));
+    }
+
+    @Override
+    public void writeRawValue(char[] text, int offset, int len) throws IOException {
+        writeStructured(new String(text, offset, len));
+    }
+
+    @Override
+    public void writeRawValue(SerializableString text) throws IOException {
+        writeStructured(text.getValue());
+    }
+
+    private void writeStructured(String text) throws IOException {
+        JsonNode node;
+        try {
+            node = mapper.readTree(text);
+        } catch (JsonProcessingException e) {
+            node = null;
+        }
+        if (node == null || node.isMissingNode()) {
+            writeString(text);
+        } else {
+            writeTree(node);
+        }
+    }
+}
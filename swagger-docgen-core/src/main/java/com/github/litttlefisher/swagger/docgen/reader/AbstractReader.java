@@ -1,18 +1,25 @@
 package com.github.litttlefisher.swagger.docgen.reader;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import javax.ws.rs.BeanParam;
@@ -21,7 +28,6 @@ import javax.ws.rs.HeaderParam;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.QueryParam;
 
-import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.reflect.TypeUtils;
 import org.apache.commons.lang3.text.StrBuilder;
@@ -40,8 +46,6 @@ import com.github.litttlefisher.swagger.docgen.util.TypeWithAnnotations;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
-import com.sun.javadoc.ClassDoc;
-import com.sun.javadoc.MethodDoc;
 import com.sun.jersey.api.core.InjectParam;
 
 import io.swagger.annotations.Api;
@@ -79,7 +83,9 @@ import io.swagger.models.properties.Property;
 import io.swagger.models.properties.RefProperty;
 import io.swagger.util.ParameterProcessor;
 import io.swagger.util.PathUtils;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -109,11 +115,90 @@ public abstract class AbstractReader {
     /** 是否解析javadoc来配置描述 */
     private boolean javadocEnabled;
 
+    /** javadoc仓库，为空时不解析javadoc */
+    private JavaDocReader javaDocReader;
+
+    /** 并行解析的线程数，小于等于1时串行解析 */
+    private int readerThreads;
+
+    /** 方法在整个继承体系中查找到的javadoc注释，并行解析时各线程的reader共享 */
+    @Getter(AccessLevel.NONE)
+    private final Map<Method, Optional<String>> inheritedMethodComments;
+
+    /** 返回类型解析出的model，并行解析时各线程的reader共享 */
+    @Getter(AccessLevel.NONE)
+    private final ResolvedModelCache resolvedModels;
+
+    /** 已经将model注册到{@link #registeredSwagger}中的类型 */
+    @Getter(AccessLevel.NONE)
+    private final Set<Type> registeredModelTypes = new HashSet<>();
+
+    /** {@link #registeredModelTypes}对应的swagger，swagger被替换后需要重新注册 */
+    @Getter(AccessLevel.NONE)
+    private Swagger registeredSwagger;
+
     public AbstractReader(Swagger swagger) {
         this.swagger = swagger;
+        this.inheritedMethodComments = new ConcurrentHashMap<>();
+        this.resolvedModels = new ResolvedModelCache();
         updateExtensionChain();
     }
 
+    /**
+     * 复制reader的配置创建一个写入到另一个swagger中的reader，不会修改全局的swagger扩展点，
+     * 用于并行解析时每个任务写入独立的swagger片段
+     *
+     * @param reader 被复制配置的reader
+     * @param swagger swagger片段
+     */
+    protected AbstractReader(AbstractReader reader, Swagger swagger) {
+        this.swagger = swagger;
+        this.operationIdFormat = reader.operationIdFormat;
+        // swagger扩展在解析时会向typesToSkip中添加类型，每个reader使用独立的副本
+        this.typesToSkip = new HashSet<>(reader.typesToSkip);
+        this.javadocEnabled = reader.javadocEnabled;
+        this.javaDocReader = reader.javaDocReader;
+        this.inheritedMethodComments = reader.inheritedMethodComments;
+        this.resolvedModels = reader.resolvedModels;
+    }
+
+    /**
+     * 解析类型本身对应的model，同一个类型只解析一次
+     *
+     * @param type 类型
+     * @return model，key为model名称，不可修改
+     */
+    protected Map<String, Model> readModels(Type type) {
+        return resolvedModels.read(type);
+    }
+
+    /**
+     * 将类型解析为property，每次返回新的实例，引用到的model由{@link CachingModelConverter}缓存
+     *
+     * @param type 类型
+     * @return property，无法解析时返回null
+     */
+    protected Property readAsProperty(Type type) {
+        ReferencedClasses.add(type);
+        return ModelConverters.getInstance().readAsProperty(type);
+    }
+
+    /**
+     * 将类型本身及其引用到的所有model注册到swagger中，同一个类型只注册一次
+     *
+     * @param type 类型
+     */
+    protected void registerModels(Type type) {
+        if (registeredSwagger != swagger) {
+            registeredSwagger = swagger;
+            registeredModelTypes.clear();
+        }
+        if (registeredModelTypes.add(type)) {
+            resolvedModels.read(type).forEach(swagger::model);
+            resolvedModels.readAll(type).forEach(swagger::model);
+        }
+    }
+
     public void setTypesToSkip(List<Type> typesToSkip) {
         this.typesToSkip = new HashSet<>(typesToSkip);
     }
@@ -251,63 +336,117 @@ public abstract class AbstractReader {
      * @return uri的描述
      */
     protected String getMethodSummary(String apiOperationValue, Method method) {
-        String methodJavaDocComment = getMethodJavaDocFromSuper(method.getName(), method);
-        if (isJavadocEnabled()) {
-            if (StringUtils.isNotBlank(methodJavaDocComment)) {
-                return methodJavaDocComment;
-            } else {
-                return StringUtils.isNotBlank(apiOperationValue) ? apiOperationValue :
-                    method.getDeclaringClass().getSimpleName() + SymbolConstant.PERIOD + method.getName();
-            }
-        } else {
+        if (!isJavadocEnabled()) {
             return apiOperationValue;
         }
+        String methodJavaDocComment = getInheritedMethodJavaDoc(method);
+        if (StringUtils.isNotBlank(methodJavaDocComment)) {
+            return methodJavaDocComment;
+        } else {
+            return StringUtils.isNotBlank(apiOperationValue) ? apiOperationValue :
+                method.getDeclaringClass().getSimpleName() + SymbolConstant.PERIOD + method.getName();
+        }
+    }
+
+    /**
+     * 获取方法的javadoc注释，方法本身没有注释时依次从父类、父接口（包括父类的接口）中查找，
+     * 查找结果按方法缓存，同一个方法只查找一次
+     *
+     * @param method 方法
+     * @return javadoc注释，整个继承体系中都没有注释时返回null
+     */
+    private String getInheritedMethodJavaDoc(Method method) {
+        return inheritedMethodComments.computeIfAbsent(method,
+            key -> Optional.ofNullable(findInheritedMethodJavaDoc(key))).orElse(null);
     }
 
     /**
-     * 从父类或父接口中查找javadoc注释
+     * 按广度优先遍历方法所在类的继承体系，先父类后接口，返回第一个非空的javadoc注释
      *
-     * @param needMethodName 需要匹配的方法名
-     * @param method 当前方法
+     * @param method 方法
      * @return javadoc注释
      */
-    private String getMethodJavaDocFromSuper(String needMethodName, Method method) {
-        // 查询当前方法是否有javadoc注释
-        String returnComment = getMethodJavaDoc(method);
-        if (StringUtils.isNotBlank(returnComment) && method.getName().equals(needMethodName)) {
-            return returnComment;
-        }
-        // 是否有父类或父接口 true-没有父类或父接口
-        boolean notHasSuper =
-            (method.getDeclaringClass().getSuperclass() == null || method.getDeclaringClass().getSuperclass().equals(
-                Object.class)) && ArrayUtils.isEmpty(method.getDeclaringClass().getInterfaces());
-        if (notHasSuper) {
-            return null;
-        } else {
-            if (!method.getDeclaringClass().getSuperclass().equals(Object.class)) {
-                // 递归父类
-                for (Method declaredMethod : method.getDeclaringClass().getSuperclass().getDeclaredMethods()) {
-                    MethodJavadoc methodJavadoc = new MethodJavadoc(needMethodName, declaredMethod).invoke();
-                    if (methodJavadoc.is()) {
-                        return returnComment;
-                    }
-                    returnComment = methodJavadoc.getReturnComment();
+    private String findInheritedMethodJavaDoc(Method method) {
+        Deque<Class<?>> queue = new ArrayDeque<>();
+        Set<Class<?>> visited = Sets.newHashSet();
+        queue.add(method.getDeclaringClass());
+        while (!queue.isEmpty()) {
+            Class<?> type = queue.poll();
+            if (type == null || Object.class.equals(type) || !visited.add(type)) {
+                continue;
+            }
+            Method overridden = findOverriddenMethod(type, method);
+            if (overridden != null) {
+                String comment = getMethodJavaDoc(overridden);
+                if (StringUtils.isNotBlank(comment)) {
+                    return comment;
                 }
             }
-            // 如果父类都没有javadoc，则递归查询接口中是否有
-            if (StringUtils.isBlank(returnComment) && ArrayUtils.isNotEmpty(
-                method.getDeclaringClass().getInterfaces())) {
-                for (Class<?> anInterface : method.getDeclaringClass().getInterfaces()) {
-                    for (Method declaredMethod : anInterface.getDeclaredMethods()) {
-                        MethodJavadoc methodJavadoc = new MethodJavadoc(needMethodName, declaredMethod).invoke();
-                        if (methodJavadoc.is()) {
-                            return returnComment;
-                        }
-                    }
+            queue.add(type.getSuperclass());
+            queue.addAll(Arrays.asList(type.getInterfaces()));
+        }
+        return null;
+    }
+
+    /**
+     * 在类中查找被重写的方法，参数类型完全一致的方法优先；
+     * 父类的参数为泛型时，按子类声明的泛型参数解析后擦除，与方法的参数类型逐一比较
+     *
+     * @param type 父类或父接口
+     * @param method 方法
+     * @return 类中声明的方法，没有参数类型一致的方法时返回null
+     */
+    private Method findOverriddenMethod(Class<?> type, Method method) {
+        try {
+            return type.getDeclaredMethod(method.getName(), method.getParameterTypes());
+        } catch (NoSuchMethodException e) {
+            Map<TypeVariable<?>, Type> typeArguments = TypeUtils.getTypeArguments(method.getDeclaringClass(), type);
+            if (typeArguments == null) {
+                typeArguments = Collections.emptyMap();
+            }
+            for (Method declaredMethod : type.getDeclaredMethods()) {
+                if (!declaredMethod.isBridge() && declaredMethod.getName().equals(method.getName())
+                    && Arrays.equals(eraseParameterTypes(declaredMethod, typeArguments),
+                    method.getParameterTypes())) {
+                    return declaredMethod;
                 }
             }
-            return returnComment;
+            return null;
+        }
+    }
+
+    /**
+     * 将父类方法的泛型参数按子类声明的泛型参数解析并擦除
+     *
+     * @param method 父类或父接口中的方法
+     * @param typeArguments 子类到父类的泛型参数映射
+     * @return 擦除后的参数类型
+     */
+    private static Class<?>[] eraseParameterTypes(Method method, Map<TypeVariable<?>, Type> typeArguments) {
+        Type[] parameterTypes = method.getGenericParameterTypes();
+        Class<?>[] erased = new Class<?>[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            erased[i] = erase(parameterTypes[i], typeArguments);
+        }
+        return erased;
+    }
+
+    /**
+     * 擦除类型，泛型变量优先使用映射中的实际类型，没有时使用其上界
+     */
+    private static Class<?> erase(Type type, Map<TypeVariable<?>, Type> typeArguments) {
+        if (type instanceof TypeVariable) {
+            Type argument = typeArguments.get(type);
+            if (argument != null && !argument.equals(type)) {
+                return erase(argument, typeArguments);
+            }
+            return erase(((TypeVariable<?>) type).getBounds()[0], typeArguments);
         }
+        if (type instanceof GenericArrayType) {
+            Class<?> componentType = erase(((GenericArrayType) type).getGenericComponentType(), typeArguments);
+            return Array.newInstance(componentType, 0).getClass();
+        }
+        return TypeUtils.getRawType(type, null);
     }
 
     /**
@@ -317,17 +456,45 @@ public abstract class AbstractReader {
      * @return javadoc注释
      */
     private String getMethodJavaDoc(Method method) {
-        ClassDoc classJavaDoc = JavaDocReader.getClassJavaDoc(method.getDeclaringClass().getCanonicalName());
+        if (javaDocReader == null) {
+            return null;
+        }
+        ClassJavaDoc classJavaDoc = javaDocReader.getClassJavaDoc(method.getDeclaringClass());
         if (classJavaDoc != null) {
-            MethodDoc methodDoc = Arrays.stream(classJavaDoc.methods(false)).filter(
-                input -> input.name().equals(method.getName())).findFirst().orElse(null);
-            if (methodDoc != null) {
-                return methodDoc.commentText();
-            }
+            return classJavaDoc.getMethodComment(method);
         }
         return null;
     }
 
+    /**
+     * 将并行解析得到的swagger片段合并到当前swagger中，效果与在当前swagger上依次解析相同：
+     * tag按名称保留第一个，同一路径下的同一请求方式以及同名的model以后合并的为准
+     *
+     * @param fragment swagger片段
+     */
+    protected void mergeFragment(Swagger fragment) {
+        if (fragment.getTags() != null) {
+            if (swagger.getTags() == null) {
+                swagger.setTags(new ArrayList<>());
+            }
+            fragment.getTags().forEach(swagger::tag);
+        }
+        if (fragment.getPaths() != null) {
+            fragment.getPaths().forEach((operationPath, path) -> {
+                Path existing = swagger.getPath(operationPath);
+                if (existing == null) {
+                    swagger.path(operationPath, path);
+                } else {
+                    path.getOperationMap().forEach(
+                        (httpMethod, operation) -> existing.set(httpMethod.name().toLowerCase(), operation));
+                }
+            });
+        }
+        if (fragment.getDefinitions() != null) {
+            fragment.getDefinitions().forEach(swagger::model);
+        }
+    }
+
     /**
      * 解析tag
      *
@@ -514,6 +681,7 @@ public abstract class AbstractReader {
         Iterator<SwaggerExtension> chain = SwaggerExtensions.chain();
         List<Parameter> parameters = new ArrayList<>();
         Class<?> cls = TypeUtils.getRawType(type, type);
+        ReferencedClasses.add(cls);
         log.debug("Looking for path/query/header/form/cookie params in " + cls);
 
         if (chain.hasNext()) {
@@ -560,17 +728,14 @@ public abstract class AbstractReader {
                     }
                 }
             } else {
-                Map<String, Model> models = ModelConverters.getInstance().read(responseClass);
-                for (String key : models.keySet()) {
+                for (String key : readModels(responseClass).keySet()) {
                     if (RESPONSE_HEADER_CONTAINER_LIST.equals(apiResponse.responseContainer())) {
                         response.setResponseSchema(new ArrayModel().items(new RefProperty().asDefault(key)));
                     } else {
                         response.setResponseSchema(new RefModel().asDefault(key));
                     }
-                    swagger.model(key, models.get(key));
                 }
-                models = ModelConverters.getInstance().readAll(responseClass);
-                models.forEach((key, value) -> swagger.model(key, value));
+                registerModels(responseClass);
 
                 if (response.getResponseSchema() == null) {
                     Map<String, Response> responses = operation.getResponses();
@@ -738,41 +903,4 @@ public abstract class AbstractReader {
 
         return output;
     }
-
-    private class MethodJavadoc {
-        private boolean result;
-        private String needMethodName;
-        private Method declaredMethod;
-        private String returnComment;
-
-        public MethodJavadoc(String needMethodName, Method declaredMethod) {
-            this.needMethodName = needMethodName;
-            this.declaredMethod = declaredMethod;
-        }
-
-        boolean is() {return result;}
-
-        public String getReturnComment() {
-            return returnComment;
-        }
-
-        public MethodJavadoc invoke() {
-            if (declaredMethod.getName().equals(needMethodName)) {
-                returnComment = getMethodJavaDoc(declaredMethod);
-                if (StringUtils.isNotBlank(returnComment)) {
-                    result = true;
-                    return this;
-                }
-            } else {
-                returnComment = getMethodJavaDocFromSuper(needMethodName, declaredMethod);
-                if (StringUtils.isNotBlank(returnComment)) {
-                    result = true;
-                    return this;
-                }
-            }
-            result = false;
-            return this;
-        }
-    }
 }
-
@@ -0,0 +1,179 @@
+package com.github.litttlefisher.swagger.docgen.reader;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import com.fasterxml.jackson.databind.JavaType;
+
+import io.swagger.converter.ModelConverter;
+import io.swagger.converter.ModelConverterContext;
+import io.swagger.converter.ModelConverterContextImpl;
+import io.swagger.models.Model;
+import io.swagger.models.properties.Property;
+import io.swagger.util.Json;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * model解析缓存，注册在{@link io.swagger.converter.ModelConverters}转换链的最前面
+ * <p>
+ * 请求参数和返回类型都通过{@link io.swagger.converter.ModelConverters}解析model，同一个类型在一次构建中只会经过一次
+ * {@link ModelModifier}、{@link ModelJavaDocConverter}及自定义转换器，之后直接将缓存的model定义注册到解析上下文中。
+ * 只缓存最外层的解析结果，嵌套的解析仍然交给后面的转换器，避免缓存的model被上层解析修改；
+ * property与使用处的注解相关，且会被调用方修改，不做缓存，带注解的property解析过程中触发的model解析同样不使用缓存。
+ * 缓存中保存的是model的副本，每次命中时也返回新的副本，调用方修改返回的model不会影响缓存及其他文档；副本中的property与缓存共享。
+ * 解析时引用到的类随model一起缓存，供增量解析记录依赖
+ *
+ * @author littlefisher
+ */
+@Slf4j
+public class CachingModelConverter implements ModelConverter {
+
+    /** 已解析的model，key为类型及解析时的{@link JsonView} */
+    private final Map<ModelKey, ResolvedModel> resolvedModels = new ConcurrentHashMap<>();
+
+    /** 当前线程中不能使用缓存的解析的嵌套层数，包括model的嵌套解析以及带注解的property解析 */
+    private final ThreadLocal<Integer> resolveDepth = ThreadLocal.withInitial(() -> 0);
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    @Override
+    public Property resolveProperty(Type type, ModelConverterContext context, Annotation[] annotations,
+        Iterator<ModelConverter> chain) {
+        if (!chain.hasNext()) {
+            return null;
+        }
+        if (annotations == null || annotations.length == 0) {
+            return chain.next().resolveProperty(type, context, annotations, chain);
+        }
+        // 后面的转换器可能根据注解解析出不同的model，缓存的key中没有注解，此时的model解析不使用缓存
+        int depth = resolveDepth.get();
+        resolveDepth.set(depth + 1);
+        try {
+            return chain.next().resolveProperty(type, context, annotations, chain);
+        } finally {
+            resolveDepth.set(depth);
+        }
+    }
+
+    @Override
+    public Model resolve(Type type, ModelConverterContext context, Iterator<ModelConverter> chain) {
+        ReferencedClasses.add(type);
+        int depth = resolveDepth.get();
+        if (depth > 0 || !(context instanceof ModelConverterContextImpl)) {
+            return resolveNext(type, context, chain, depth);
+        }
+
+        ModelKey key = new ModelKey(toJavaType(type), context.getJsonView());
+        ResolvedModel resolvedModel = resolvedModels.get(key);
+        if (resolvedModel != null) {
+            hitCount.incrementAndGet();
+            Map<Model, Model> copies = new IdentityHashMap<>();
+            resolvedModel.getDefinitions().forEach((name, definition) -> context.defineModel(name,
+                copy(definition, copies)));
+            ReferencedClasses.addAll(resolvedModel.getReferencedClasses());
+            return copy(resolvedModel.getModel(), copies);
+        }
+
+        missCount.incrementAndGet();
+        // 记录本次解析新定义的model，上下文中已有的定义不属于该类型
+        Map<String, Model> definedModels = ((ModelConverterContextImpl) context).getDefinedModels();
+        Map<String, Model> previousModels = new HashMap<>(definedModels);
+        Set<Class<?>> referencedClasses = new HashSet<>();
+        Model model = ReferencedClasses.record(() -> resolveNext(type, context, chain, depth), referencedClasses);
+        ReferencedClasses.addAll(referencedClasses);
+        // 缓存解析结果的副本，调用方之后对返回的model的修改不会进入缓存；同一个model的多个引用对应同一个副本
+        Map<Model, Model> copies = new IdentityHashMap<>();
+        Map<String, Model> definitions = new LinkedHashMap<>();
+        definedModels.forEach((name, definedModel) -> {
+            if (previousModels.get(name) != definedModel) {
+                definitions.put(name, copy(definedModel, copies));
+            }
+        });
+        resolvedModels.putIfAbsent(key, new ResolvedModel(copy(model, copies),
+            Collections.unmodifiableMap(definitions), Collections.unmodifiableSet(referencedClasses)));
+        return model;
+    }
+
+    /**
+     * 打印model解析缓存的统计信息
+     */
+    public void logStatistics() {
+        log.debug(String.format("Model cache: %d hits, %d misses, %d types cached", hitCount.get(),
+            missCount.get(), resolvedModels.size()));
+    }
+
+    /**
+     * 交给转换链中后面的转换器解析
+     */
+    private Model resolveNext(Type type, ModelConverterContext context, Iterator<ModelConverter> chain,
+        int depth) {
+        if (!chain.hasNext()) {
+            return null;
+        }
+        resolveDepth.set(depth + 1);
+        try {
+            return chain.next().resolve(type, context, chain);
+        } finally {
+            resolveDepth.set(depth);
+        }
+    }
+
+    /**
+     * 复制model，已经复制过的model直接返回之前的副本，保持model之间的引用关系
+     *
+     * @param model model，可能为空
+     * @param copies 已复制的model，key为原model
+     * @return model的副本
+     */
+    private static Model copy(Model model, Map<Model, Model> copies) {
+        return model == null ? null : copies.computeIfAbsent(model, original -> (Model) original.clone());
+    }
+
+    private static JavaType toJavaType(Type type) {
+        if (type instanceof JavaType) {
+            return (JavaType) type;
+        }
+        return Json.mapper().constructType(type);
+    }
+
+    /**
+     * 缓存的key
+     */
+    @Data
+    private static final class ModelKey {
+
+        private final JavaType type;
+
+        private final JsonView jsonView;
+    }
+
+    /**
+     * 类型的解析结果
+     */
+    @Data
+    private static final class ResolvedModel {
+
+        /** 类型本身对应的model，可能为空 */
+        private final Model model;
+
+        /** 解析该类型时定义的所有model，key为model名称 */
+        private final Map<String, Model> definitions;
+
+        /** 解析该类型时引用到的类 */
+        private final Set<Class<?>> referencedClasses;
+    }
+}
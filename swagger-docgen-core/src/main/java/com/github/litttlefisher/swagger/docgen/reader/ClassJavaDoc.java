@@ -0,0 +1,76 @@
+package com.github.litttlefisher.swagger.docgen.reader;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import lombok.Data;
+
+/**
+ * 类的javadoc注释
+ *
+ * @author littlefisher
+ */
+@Data
+public class ClassJavaDoc {
+
+    /** 类全路径，内部类使用"."分隔，与{@link Class#getCanonicalName()}一致 */
+    private String qualifiedName;
+
+    /** 类注释，不包括@param等块标签 */
+    private String comment;
+
+    /** 字段注释，key为字段名 */
+    private Map<String, String> fieldComments = new LinkedHashMap<>();
+
+    /** 方法注释，key为方法签名，如save(String,List)，参数类型为简单类名 */
+    private Map<String, String> methodComments = new LinkedHashMap<>();
+
+    /** 方法注释，key为方法名，只记录没有重载且有注释的方法，方法签名匹配不上时使用（如参数类型为泛型变量） */
+    private Map<String, String> methodNameComments = new LinkedHashMap<>();
+
+    /** 同名方法的数量，key为方法名 */
+    private Map<String, Integer> methodNameCounts = new HashMap<>();
+
+    /**
+     * 记录方法注释
+     *
+     * @param methodName 方法名
+     * @param parameterTypes 参数的简单类名
+     * @param comment 方法注释
+     */
+    void putMethodComment(String methodName, List<String> parameterTypes, String comment) {
+        String signature = toSignature(methodName, parameterTypes);
+        if (methodComments.containsKey(signature)) {
+            return;
+        }
+        methodComments.put(signature, comment);
+        if (methodNameCounts.merge(methodName, 1, Integer::sum) > 1) {
+            // 有重载时无法确定对应哪个方法
+            methodNameComments.remove(methodName);
+        } else if (!comment.isEmpty()) {
+            methodNameComments.put(methodName, comment);
+        }
+    }
+
+    /**
+     * 获取方法注释，优先按方法签名匹配，重载的方法各自对应自己的注释；签名匹配不上时只在方法没有重载时按方法名匹配
+     *
+     * @param method 方法
+     * @return 方法注释，没有时返回null
+     */
+    public String getMethodComment(Method method) {
+        List<String> parameterTypes = Arrays.stream(method.getParameterTypes()).map(Class::getSimpleName).collect(
+            Collectors.toList());
+        String comment = methodComments.get(toSignature(method.getName(), parameterTypes));
+        return comment != null ? comment : methodNameComments.get(method.getName());
+    }
+
+    private static String toSignature(String methodName, List<String> parameterTypes) {
+        return methodName + "(" + String.join(",", parameterTypes) + ")";
+    }
+}
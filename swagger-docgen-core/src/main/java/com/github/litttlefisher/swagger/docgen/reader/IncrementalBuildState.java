@@ -0,0 +1,338 @@
+package com.github.litttlefisher.swagger.docgen.reader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.github.litttlefisher.swagger.docgen.util.OutputFileUtils;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+
+import io.swagger.models.Swagger;
+import io.swagger.util.Json;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 增量解析的构建状态
+ * <p>
+ * 以Controller类为单位记录其字节码摘要、解析时依赖的类（父类、接口、model、参数类等）的字节码摘要以及解析出的各个swagger片段，
+ * 再次构建时Controller及其依赖的类都没有变化的直接使用上次的片段，其余的重新解析；状态文件的格式、解析配置的指纹或全局依赖
+ * 发生变化时上次的状态全部失效。只在主reader的线程中使用，非线程安全
+ *
+ * @author littlefisher
+ */
+@Slf4j
+public class IncrementalBuildState {
+
+    /** 状态文件格式版本，格式变更时需要修改，旧版本的状态文件会被忽略 */
+    private static final int VERSION = 1;
+
+    /** class文件后缀 */
+    private static final String CLASS_FILE_SUFFIX = ".class";
+
+    /** 比较json树时数值按字面比较，{@link JsonNode#equals(Object)}会将精度不同的BigDecimal（如1.50与1.5）视为相同 */
+    private static final Comparator<JsonNode> EXACT_COMPARATOR = (node, other) -> {
+        if (node.isNumber() && other.isNumber()) {
+            return node.asText().equals(other.asText()) ? 0 : 1;
+        }
+        return node.equals(other) ? 0 : 1;
+    };
+
+    /** swagger片段以json树保存，需要精确保存数值，避免BigDecimal在json树中被改写 */
+    private final ObjectMapper mapper = Json.mapper().copy().setNodeFactory(
+        JsonNodeFactory.withExactBigDecimals(true)).enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+
+    private final File stateFile;
+
+    /** 影响解析结果的配置的指纹 */
+    private final String fingerprint;
+
+    /** 从状态文件中读取到的类，key为Controller类名 */
+    private Map<String, ClassState> cachedClasses = Collections.emptyMap();
+
+    /** 全局依赖的字节码摘要，key为类名 */
+    private Map<String, String> globalDependencies = Collections.emptyMap();
+
+    /** 本次构建中的类，保存时只保留这些类 */
+    private final Map<String, ClassState> currentClasses = new TreeMap<>();
+
+    /** 已校验的Controller类，value为上次的状态是否可以使用 */
+    private final Map<String, Boolean> validatedClasses = new HashMap<>();
+
+    /** 本次构建中重新解析过的Controller类 */
+    private final Set<String> readClasses = new HashSet<>();
+
+    /** 本次构建中已计算的字节码摘要，key为类名，class文件不存在时value为空串 */
+    private final Map<String, String> classHashes = new HashMap<>();
+
+    /**
+     * @param stateFile 状态文件
+     * @param fingerprint 影响解析结果的配置的指纹
+     */
+    public IncrementalBuildState(File stateFile, String fingerprint) {
+        this.stateFile = stateFile;
+        this.fingerprint = fingerprint;
+        load();
+    }
+
+    /**
+     * 校验影响所有Controller解析结果的类，发生变化时上次的状态全部失效
+     *
+     * @param classes 全局依赖的类
+     */
+    void checkGlobalDependencies(Collection<Class<?>> classes) {
+        Map<String, String> dependencies = new TreeMap<>();
+        withSupertypes(classes).forEach(cls -> dependencies.put(cls.getName(), hash(cls)));
+        if (!cachedClasses.isEmpty() && !dependencies.equals(globalDependencies)) {
+            log.info("Global dependencies changed, all controllers will be read");
+            cachedClasses = Collections.emptyMap();
+        }
+        globalDependencies = dependencies;
+    }
+
+    /**
+     * 读取上次构建的swagger片段
+     *
+     * @param controller Controller类
+     * @param resourceKey 片段的key
+     * @return Controller及其依赖的类都没有变化时返回上次的片段，否则返回null
+     */
+    Swagger getFragment(Class<?> controller, String resourceKey) {
+        String className = controller.getName();
+        if (!validatedClasses.computeIfAbsent(className, key -> isUnchanged(controller))) {
+            return null;
+        }
+        ClassState classState = cachedClasses.get(className);
+        currentClasses.putIfAbsent(className, classState);
+        JsonNode fragment = classState.getResources().get(resourceKey);
+        if (fragment == null) {
+            return null;
+        }
+        try {
+            return mapper.treeToValue(fragment, Swagger.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring unreadable fragment " + resourceKey + " of " + className, e);
+            return null;
+        }
+    }
+
+    /**
+     * 记录重新解析的swagger片段，需要在片段被合并之前调用；片段无法从json无损还原时不记录，每次构建都重新解析
+     *
+     * @param controller Controller类
+     * @param resourceKey 片段的key
+     * @param fragment swagger片段
+     * @param dependencies 解析时引用到的类
+     */
+    void putFragment(Class<?> controller, String resourceKey, Swagger fragment, Collection<Class<?>> dependencies) {
+        validatedClasses.putIfAbsent(controller.getName(), false);
+        readClasses.add(controller.getName());
+        ClassState classState = currentClasses.computeIfAbsent(controller.getName(), key -> {
+            ClassState state = new ClassState();
+            state.setHash(hash(controller));
+            state.setDependencies(new TreeMap<>());
+            state.setResources(new TreeMap<>());
+            return state;
+        });
+        Set<Class<?>> classes = new LinkedHashSet<>(dependencies);
+        classes.add(controller);
+        for (Class<?> cls : withSupertypes(classes)) {
+            if (cls != controller) {
+                classState.getDependencies().put(cls.getName(), hash(cls));
+            }
+        }
+        JsonNode tree = mapper.valueToTree(fragment);
+        if (isRestorable(tree)) {
+            classState.getResources().put(resourceKey, tree);
+        } else {
+            log.debug(String.format("Fragment %s can not be restored losslessly, it will be read every time",
+                resourceKey));
+        }
+    }
+
+    /**
+     * 保存本次构建的状态，内容没有变化时不改写状态文件
+     */
+    public void save() {
+        int reused = getReusedClasses().size();
+        log.info(String.format("Incremental reading: %d controllers reused, %d controllers read", reused,
+            validatedClasses.size() - reused));
+        StateFile content = new StateFile();
+        content.setVersion(VERSION);
+        content.setFingerprint(fingerprint);
+        content.setGlobalDependencies(globalDependencies);
+        content.setClasses(currentClasses);
+        try {
+            Files.createDirectories(stateFile.getAbsoluteFile().getParentFile().toPath());
+            OutputFileUtils.write(stateFile, StandardCharsets.UTF_8, writer -> mapper.writeValue(writer, content));
+        } catch (IOException e) {
+            log.warn("Failed to write build state " + stateFile, e);
+        }
+    }
+
+    /**
+     * 本次构建中所有片段都直接使用上次结果的Controller
+     *
+     * @return Controller类名
+     */
+    Set<String> getReusedClasses() {
+        return validatedClasses.entrySet().stream().filter(
+            entry -> entry.getValue() && !readClasses.contains(entry.getKey())).map(Map.Entry::getKey).collect(
+            Collectors.toCollection(TreeSet::new));
+    }
+
+    private void load() {
+        if (!stateFile.isFile()) {
+            return;
+        }
+        try {
+            StateFile content = mapper.readValue(stateFile, StateFile.class);
+            if (content.getVersion() != VERSION || !fingerprint.equals(content.getFingerprint())
+                || content.getClasses() == null) {
+                log.info("Build state " + stateFile + " is outdated, all controllers will be read");
+                return;
+            }
+            cachedClasses = content.getClasses();
+            if (content.getGlobalDependencies() != null) {
+                globalDependencies = content.getGlobalDependencies();
+            }
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable build state " + stateFile, e);
+        }
+    }
+
+    /**
+     * Controller本身及上次记录的依赖的字节码都没有变化
+     */
+    private boolean isUnchanged(Class<?> controller) {
+        ClassState classState = cachedClasses.get(controller.getName());
+        if (classState == null || classState.getResources() == null || !hash(controller).equals(
+            classState.getHash())) {
+            return false;
+        }
+        if (classState.getDependencies() != null) {
+            for (Map.Entry<String, String> dependency : classState.getDependencies().entrySet()) {
+                if (!hash(dependency.getKey(), controller.getClassLoader()).equals(dependency.getValue())) {
+                    log.debug(String.format("%s changed, %s will be read", dependency.getKey(), controller.getName()));
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * swagger的部分反序列化器会改写内容（如为没有属性的object补充空的properties、去掉BigDecimal末尾的0），
+     * 还原后的片段与原片段一致时才能使用
+     */
+    private boolean isRestorable(JsonNode fragment) {
+        try {
+            JsonNode restored = mapper.valueToTree(mapper.treeToValue(fragment, Swagger.class));
+            return fragment.equals(EXACT_COMPARATOR, restored);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private String hash(Class<?> cls) {
+        return hash(cls.getName(), cls.getClassLoader());
+    }
+
+    /**
+     * 计算class文件的摘要，同一个类在一次构建中只计算一次
+     */
+    private String hash(String className, ClassLoader classLoader) {
+        return classHashes.computeIfAbsent(className, key -> hashClassFile(key, classLoader));
+    }
+
+    /**
+     * 计算类及其父类、接口的字节码摘要，用于将自定义的转换器、扩展等纳入配置的指纹
+     *
+     * @param classes 类
+     * @return 字节码摘要，key为类名
+     */
+    public static Map<String, String> hashClasses(Collection<Class<?>> classes) {
+        Map<String, String> hashes = new TreeMap<>();
+        withSupertypes(classes).forEach(cls -> hashes.put(cls.getName(), hashClassFile(cls.getName(),
+            cls.getClassLoader())));
+        return hashes;
+    }
+
+    /**
+     * 计算class文件的摘要，class文件不存在时返回空串
+     */
+    private static String hashClassFile(String className, ClassLoader classLoader) {
+        String resource = className.replace('.', '/') + CLASS_FILE_SUFFIX;
+        try (InputStream in = classLoader == null ? ClassLoader.getSystemResourceAsStream(resource) :
+            classLoader.getResourceAsStream(resource)) {
+            return in == null ? "" : Hashing.sha256().hashBytes(ByteStreams.toByteArray(in)).toString();
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    /**
+     * 补充类的所有父类及接口，JDK中的类不需要记录
+     */
+    private static Set<Class<?>> withSupertypes(Collection<Class<?>> classes) {
+        Set<Class<?>> result = new LinkedHashSet<>();
+        Deque<Class<?>> pending = new ArrayDeque<>(classes);
+        while (!pending.isEmpty()) {
+            Class<?> cls = pending.poll();
+            if (cls.getClassLoader() == null || !result.add(cls)) {
+                continue;
+            }
+            if (cls.getSuperclass() != null) {
+                pending.add(cls.getSuperclass());
+            }
+            pending.addAll(Arrays.asList(cls.getInterfaces()));
+        }
+        return result;
+    }
+
+    /**
+     * 状态文件内容
+     */
+    @Data
+    static class StateFile {
+        private int version;
+        private String fingerprint;
+        private Map<String, String> globalDependencies;
+        private Map<String, ClassState> classes;
+    }
+
+    /**
+     * 单个Controller类的状态
+     */
+    @Data
+    static class ClassState {
+        /** Controller类的字节码摘要 */
+        private String hash;
+        /** 依赖的类的字节码摘要，key为类名 */
+        private Map<String, String> dependencies;
+        /** 解析出的swagger片段，key为片段的key */
+        private Map<String, JsonNode> resources;
+    }
+}
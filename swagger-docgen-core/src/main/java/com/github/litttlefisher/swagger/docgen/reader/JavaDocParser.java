@@ -0,0 +1,508 @@
+package com.github.litttlefisher.swagger.docgen.reader;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * 轻量的java源文件注释解析器
+ * <p>
+ * 只识别包、类、字段、方法的声明以及紧挨在声明之前的javadoc注释，方法体、字段初始值、注解参数等直接跳过，
+ * 不进行语法校验，也不解析依赖的其他源文件
+ *
+ * @author littlefisher
+ */
+class JavaDocParser {
+
+    private static final String PACKAGE = "package";
+
+    private static final String IMPORT = "import";
+
+    private static final String CLASS = "class";
+
+    private static final String INTERFACE = "interface";
+
+    private static final String ENUM = "enum";
+
+    private static final String FINAL = "final";
+
+    /** 文本块的定界符 */
+    private static final String TEXT_BLOCK_DELIMITER = "\"\"\"";
+
+    /** 块标签的起始字符，如@param、@return */
+    private static final String BLOCK_TAG_PREFIX = "@";
+
+    private final String source;
+
+    private int position;
+
+    /** 回退的token */
+    private String pushedBack;
+
+    /** 当前token之前的javadoc注释 */
+    private String tokenDoc;
+
+    /** 上一个token之后读取到的javadoc注释 */
+    private String pendingDoc;
+
+    private String packageName = StringUtils.EMPTY;
+
+    private final List<ClassJavaDoc> classJavaDocs = new ArrayList<>();
+
+    private JavaDocParser(String source) {
+        this.source = source.indexOf("\\u") < 0 ? source : translateUnicodeEscapes(source);
+    }
+
+    /**
+     * 解析java源文件
+     *
+     * @param source 源文件内容
+     * @return 源文件中所有类（包括内部类）的javadoc
+     */
+    static List<ClassJavaDoc> parse(String source) {
+        JavaDocParser parser = new JavaDocParser(source);
+        parser.parseMembers(null, false);
+        return parser.classJavaDocs;
+    }
+
+    /**
+     * 解析类体中的成员，直到类体结束；outer为空时解析文件顶层的声明
+     *
+     * @param outer 外部类
+     * @param isEnum 外部类是否为枚举
+     */
+    private void parseMembers(ClassJavaDoc outer, boolean isEnum) {
+        boolean enumConstants = isEnum;
+        while (true) {
+            String token = next();
+            if (token == null || "}".equals(token)) {
+                return;
+            }
+            if (enumConstants) {
+                // 与javadoc的fields()一致，枚举常量不作为字段记录，参数和常量体直接跳过
+                while (BLOCK_TAG_PREFIX.equals(token)) {
+                    next();
+                    skipAnnotation();
+                    token = next();
+                }
+                String terminator = token;
+                if (token != null && Character.isJavaIdentifierStart(token.charAt(0))) {
+                    terminator = skipUntil(",", ";", "}");
+                }
+                if (terminator == null || "}".equals(terminator)) {
+                    return;
+                }
+                enumConstants = !";".equals(terminator);
+                continue;
+            }
+            if (";".equals(token)) {
+                continue;
+            }
+            String doc = tokenDoc;
+            if (outer == null && PACKAGE.equals(token)) {
+                packageName = readQualifiedName();
+                continue;
+            }
+            if (outer == null && IMPORT.equals(token)) {
+                skipUntil(";");
+                continue;
+            }
+            parseDeclaration(outer, token, doc);
+        }
+    }
+
+    /**
+     * 解析一个声明，读取到声明结束为止
+     *
+     * @param outer 外部类
+     * @param token 声明的第一个token
+     * @param doc 声明的javadoc注释
+     */
+    private void parseDeclaration(ClassJavaDoc outer, String token, String doc) {
+        List<String> tokens = new ArrayList<>();
+        List<String> fieldNames = new ArrayList<>();
+        int angleDepth = 0;
+        while (token != null) {
+            if (BLOCK_TAG_PREFIX.equals(token)) {
+                String next = next();
+                if (INTERFACE.equals(next)) {
+                    parseType(outer, false, doc);
+                    return;
+                }
+                skipAnnotation();
+            } else if ((CLASS.equals(token) || INTERFACE.equals(token) || ENUM.equals(token)) && !".".equals(
+                previousTokenOf(tokens))) {
+                parseType(outer, ENUM.equals(token), doc);
+                return;
+            } else if ("(".equals(token)) {
+                List<String> parameterTypes = readParameterTypes();
+                String terminator = skipUntil(";", "{");
+                if ("{".equals(terminator)) {
+                    skipBalanced("{", "}");
+                }
+                String methodName = lastIdentifier(tokens);
+                if (outer != null && methodName != null && !methodName.equals(simpleName(outer))) {
+                    outer.putMethodComment(methodName, parameterTypes, toComment(doc));
+                }
+                return;
+            } else if ("{".equals(token)) {
+                // 初始化块
+                skipBalanced("{", "}");
+                return;
+            } else if ("=".equals(token) || ";".equals(token) || (",".equals(token) && angleDepth == 0)) {
+                fieldNames.add(lastIdentifier(tokens));
+                tokens.clear();
+                if ("=".equals(token)) {
+                    // 字段初始值中可能包含逗号，只记录第一个被赋值之前的字段
+                    skipUntil(";");
+                    token = ";";
+                }
+                if (";".equals(token)) {
+                    addFields(outer, fieldNames, doc);
+                    return;
+                }
+            } else {
+                if ("<".equals(token)) {
+                    angleDepth++;
+                } else if (">".equals(token)) {
+                    angleDepth--;
+                }
+                tokens.add(token);
+            }
+            token = next();
+        }
+    }
+
+    /**
+     * 解析类声明，当前位置为class、interface、enum关键字之后
+     *
+     * @param outer 外部类
+     * @param isEnum 是否为枚举
+     * @param doc 类的javadoc注释
+     */
+    private void parseType(ClassJavaDoc outer, boolean isEnum, String doc) {
+        String name = next();
+        if (name == null) {
+            return;
+        }
+        ClassJavaDoc classJavaDoc = new ClassJavaDoc();
+        if (outer != null) {
+            classJavaDoc.setQualifiedName(outer.getQualifiedName() + "." + name);
+        } else if (packageName.isEmpty()) {
+            classJavaDoc.setQualifiedName(name);
+        } else {
+            classJavaDoc.setQualifiedName(packageName + "." + name);
+        }
+        classJavaDoc.setComment(toComment(doc));
+        classJavaDocs.add(classJavaDoc);
+        if ("{".equals(skipUntil("{", ";"))) {
+            parseMembers(classJavaDoc, isEnum);
+        }
+    }
+
+    private void addFields(ClassJavaDoc outer, List<String> fieldNames, String doc) {
+        if (outer == null) {
+            return;
+        }
+        for (String fieldName : fieldNames) {
+            if (fieldName != null) {
+                outer.getFieldComments().putIfAbsent(fieldName, toComment(doc));
+            }
+        }
+    }
+
+    /**
+     * 读取方法的参数类型，当前位置为参数列表的左括号之后，读取到右括号为止
+     * <p>
+     * 参数类型只保留简单类名，去掉泛型、注解以及final修饰符，可变参数与数组一样在类名后加"[]"，
+     * 与{@link Class#getSimpleName()}的格式一致
+     *
+     * @return 参数类型
+     */
+    private List<String> readParameterTypes() {
+        List<String> parameterTypes = new ArrayList<>();
+        List<String> identifiers = new ArrayList<>();
+        int dimensions = 0;
+        int angleDepth = 0;
+        String token = next();
+        while (token != null && !")".equals(token)) {
+            if (BLOCK_TAG_PREFIX.equals(token)) {
+                next();
+                skipAnnotation();
+            } else if ("<".equals(token)) {
+                angleDepth++;
+            } else if (">".equals(token)) {
+                angleDepth--;
+            } else if (angleDepth > 0) {
+                // 泛型参数不影响擦除后的类型
+            } else if ("[".equals(token)) {
+                dimensions++;
+            } else if (",".equals(token)) {
+                addParameterType(parameterTypes, identifiers, dimensions);
+                identifiers.clear();
+                dimensions = 0;
+            } else if (".".equals(token) && source.startsWith("..", position)) {
+                // 可变参数
+                position += 2;
+                dimensions++;
+            } else if (Character.isJavaIdentifierStart(token.charAt(0)) && !FINAL.equals(token)) {
+                identifiers.add(token);
+            }
+            token = next();
+        }
+        addParameterType(parameterTypes, identifiers, dimensions);
+        return parameterTypes;
+    }
+
+    /**
+     * 记录一个参数的类型，identifiers中最后一个为参数名，倒数第二个为类名
+     */
+    private static void addParameterType(List<String> parameterTypes, List<String> identifiers, int dimensions) {
+        if (identifiers.size() < 2) {
+            return;
+        }
+        StringBuilder parameterType = new StringBuilder(identifiers.get(identifiers.size() - 2));
+        for (int i = 0; i < dimensions; i++) {
+            parameterType.append("[]");
+        }
+        parameterTypes.add(parameterType.toString());
+    }
+
+    /**
+     * 跳过注解的名称和参数，当前位置为注解名称的第一个token之后
+     */
+    private void skipAnnotation() {
+        String token = next();
+        while (".".equals(token)) {
+            next();
+            token = next();
+        }
+        if ("(".equals(token)) {
+            skipBalanced("(", ")");
+        } else {
+            pushBack(token);
+        }
+    }
+
+    private String readQualifiedName() {
+        StringBuilder name = new StringBuilder();
+        String token = next();
+        while (token != null && !";".equals(token)) {
+            name.append(token);
+            token = next();
+        }
+        return name.toString();
+    }
+
+    /**
+     * 跳过token直到遇到terminators中的任意一个，括号内的token会被整体跳过
+     *
+     * @param terminators 结束符
+     * @return 遇到的结束符，到达文件末尾时返回null
+     */
+    private String skipUntil(String... terminators) {
+        String token = next();
+        while (token != null) {
+            for (String terminator : terminators) {
+                if (terminator.equals(token)) {
+                    return token;
+                }
+            }
+            if ("(".equals(token)) {
+                skipBalanced("(", ")");
+            } else if ("{".equals(token)) {
+                skipBalanced("{", "}");
+            } else if ("[".equals(token)) {
+                skipBalanced("[", "]");
+            }
+            token = next();
+        }
+        return null;
+    }
+
+    /**
+     * 跳过成对的括号，当前位置为左括号之后
+     */
+    private void skipBalanced(String open, String close) {
+        int depth = 1;
+        String token = next();
+        while (token != null) {
+            if (open.equals(token)) {
+                depth++;
+            } else if (close.equals(token) && --depth == 0) {
+                return;
+            }
+            token = next();
+        }
+    }
+
+    private static String previousTokenOf(List<String> tokens) {
+        return tokens.isEmpty() ? null : tokens.get(tokens.size() - 1);
+    }
+
+    private static String lastIdentifier(List<String> tokens) {
+        for (int i = tokens.size() - 1; i >= 0; i--) {
+            String token = tokens.get(i);
+            if (Character.isJavaIdentifierStart(token.charAt(0))) {
+                return token;
+            }
+        }
+        return null;
+    }
+
+    private static String simpleName(ClassJavaDoc classJavaDoc) {
+        String qualifiedName = classJavaDoc.getQualifiedName();
+        return qualifiedName.substring(qualifiedName.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * 将javadoc注释转换为注释正文，去掉每行开头的星号，以及第一个块标签之后的内容
+     *
+     * @param doc javadoc注释，不包括开头的"/**"和结尾的"*&#47;"
+     * @return 注释正文，没有注释时返回空字符串
+     */
+    static String toComment(String doc) {
+        if (doc == null) {
+            return StringUtils.EMPTY;
+        }
+        StringBuilder comment = new StringBuilder();
+        for (String line : doc.split("\r\n|\r|\n")) {
+            String text = StringUtils.stripStart(line, null);
+            while (text.startsWith("*")) {
+                text = text.substring(1);
+            }
+            if (text.trim().startsWith(BLOCK_TAG_PREFIX)) {
+                break;
+            }
+            comment.append(text).append('\n');
+        }
+        return comment.toString().trim();
+    }
+
+    /**
+     * 与javac一样先将源文件中的unicode转义转换为字符
+     *
+     * @param source 源文件内容
+     * @return 转换后的内容
+     */
+    private static String translateUnicodeEscapes(String source) {
+        StringBuilder result = new StringBuilder(source.length());
+        int length = source.length();
+        int i = 0;
+        while (i < length) {
+            char c = source.charAt(i);
+            if (c == '\\' && i + 1 < length && source.charAt(i + 1) == '\\') {
+                // 转义的反斜杠不会开始unicode转义
+                result.append(c).append(c);
+                i += 2;
+                continue;
+            }
+            if (c == '\\' && i + 1 < length && source.charAt(i + 1) == 'u') {
+                int j = i + 1;
+                while (j < length && source.charAt(j) == 'u') {
+                    j++;
+                }
+                if (j + 4 <= length) {
+                    try {
+                        result.append((char) Integer.parseInt(source.substring(j, j + 4), 16));
+                        i = j + 4;
+                        continue;
+                    } catch (NumberFormatException e) {
+                        // 不是合法的unicode转义，按原样保留
+                    }
+                }
+            }
+            result.append(c);
+            i++;
+        }
+        return result.toString();
+    }
+
+    private void pushBack(String token) {
+        pushedBack = token;
+    }
+
+    /**
+     * 读取下一个token，跳过空白、注释以及字符串字面量，token之前的javadoc注释记录在{@link #tokenDoc}中；
+     * 与javac一样，多个javadoc注释取最后一个，普通的行注释、块注释不影响javadoc注释
+     *
+     * @return token，到达文件末尾时返回null
+     */
+    private String next() {
+        if (pushedBack != null) {
+            String token = pushedBack;
+            pushedBack = null;
+            return token;
+        }
+        String token = readToken();
+        tokenDoc = pendingDoc;
+        pendingDoc = null;
+        return token;
+    }
+
+    private String readToken() {
+        int length = source.length();
+        while (position < length) {
+            char c = source.charAt(position);
+            if (Character.isWhitespace(c)) {
+                position++;
+            } else if (source.startsWith("//", position)) {
+                int end = source.indexOf('\n', position);
+                position = end < 0 ? length : end + 1;
+            } else if (source.startsWith("/*", position)) {
+                int end = source.indexOf("*/", position + 2);
+                end = end < 0 ? length : end;
+                if (source.startsWith("/**", position) && end > position + 2) {
+                    pendingDoc = source.substring(position + 3, end);
+                }
+                position = Math.min(end + 2, length);
+            } else if (source.startsWith(TEXT_BLOCK_DELIMITER, position)) {
+                skipTextBlock();
+                return String.valueOf(c);
+            } else if (c == '"' || c == '\'') {
+                skipLiteral(c);
+                return String.valueOf(c);
+            } else if (Character.isJavaIdentifierPart(c)) {
+                int start = position;
+                while (position < length && Character.isJavaIdentifierPart(source.charAt(position))) {
+                    position++;
+                }
+                return source.substring(start, position);
+            } else {
+                position++;
+                return String.valueOf(c);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 跳过文本块，当前位置为开头的三个双引号
+     */
+    private void skipTextBlock() {
+        position += TEXT_BLOCK_DELIMITER.length();
+        while (position < source.length()) {
+            if (source.charAt(position) == '\\') {
+                position += 2;
+            } else if (source.startsWith(TEXT_BLOCK_DELIMITER, position)) {
+                position += TEXT_BLOCK_DELIMITER.length();
+                return;
+            } else {
+                position++;
+            }
+        }
+    }
+
+    private void skipLiteral(char quote) {
+        position++;
+        while (position < source.length()) {
+            char c = source.charAt(position++);
+            if (c == '\\') {
+                position++;
+            } else if (c == quote) {
+                return;
+            }
+        }
+    }
+}
@@ -1,31 +1,41 @@
 package com.github.litttlefisher.swagger.docgen.reader;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.CodeSource;
+import java.util.Collections;
+import java.util.Enumeration;
 import java.util.List;
 import java.util.Map;
-import java.util.jar.JarInputStream;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import com.github.litttlefisher.swagger.docgen.constant.SymbolConstant;
-import com.github.litttlefisher.swagger.docgen.exception.GenerateException;
-import com.google.common.collect.Lists;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.Maps;
-import com.sun.javadoc.ClassDoc;
-import com.sun.javadoc.RootDoc;
+import com.google.common.collect.Sets;
 
 import lombok.extern.slf4j.Slf4j;
 
 /**
+ * javadoc仓库
+ * <p>
+ * 每个apiSource持有一个实例，生命周期与一次解析相同；缓存有容量上限，可以被多个reader线程同时查询
+ *
  * @author jinyn22648
  * @version $$Id: JavaDocReader.java, v 0.1 2019/1/21 4:26 PM jinyn22648 Exp $$
  */
@@ -38,142 +48,231 @@ public class JavaDocReader {
     /** source包后缀 */
     public static final String SOURCE_JAR_SUFFIX = "sources.jar";
 
-    /** javadoc命令中doclet参数 */
-    private static final String JAVADOC_COMMAND_OPTION_DOCLET = "-doclet";
+    /** jar包后缀 */
+    private static final String JAR_FILE_SUFFIX = ".jar";
 
-    private static Map<String, ClassDoc> classDocMap = Maps.newHashMap();
+    /** jar包路径与条目名称之间的分隔符 */
+    private static final String JAR_ENTRY_SEPARATOR = "!/";
 
-    /**
-     * 第一层中key为jar包的file类，value为jar包下的java文件
-     * 第二层中key为java文件的class类路径，value为该文件存储在系统中的路径
-     */
-    private static Map<File, Map<String, String>> jarFileMap = Maps.newHashMap();
+    /** 最多缓存的类的数量 */
+    private static final long MAX_CACHED_CLASSES = 10000;
+
+    /** 最多缓存的已解析java文件的数量 */
+    private static final long MAX_CACHED_SOURCE_FILES = 2000;
+
+    /** classpath中的jar包 */
+    private final Set<File> classpathElements;
+
+    /** java源文件的字符集 */
+    private final Charset sourceEncoding;
+
+    /** 类的javadoc，找不到javadoc的类value为空，不再重复查找 */
+    private final LoadingCache<Class<?>, Optional<ClassJavaDoc>> classDocs;
+
+    /** 已解析的java文件中所有类的javadoc，key为"jar包路径!/条目名称"，value的key为类全路径 */
+    private final LoadingCache<String, Map<String, ClassJavaDoc>> sourceFiles;
+
+    /** classpath中的jar包对应的source jar包，没有source jar包时value为空，第一次用到时才查找 */
+    private final Map<File, Optional<File>> sourceJarMap = new ConcurrentHashMap<>();
+
+    /** source jar包中java文件的条目名称，只有按类所在jar包找不到源文件时才会读取 */
+    private final Map<File, Set<String>> sourceEntryMap = new ConcurrentHashMap<>();
 
     /**
-     * 解析javadoc需要该方法，具体参考{@link com.sun.javadoc.Doclet}
+     * 记录classpath中的jar包，source jar包在第一次用到时才会被查找和读取
      *
-     * @param root 入参
-     * @return 出参
+     * @param elements classpath中的jar包或class目录
+     * @param sourceEncoding java源文件的字符集，一般为project.build.sourceEncoding，为空时使用UTF-8
      */
-    public static boolean start(RootDoc root) {
-        Map<String, ClassDoc> thisRootDoc = Arrays.stream(root.classes()).collect(
-            Collectors.toMap(input -> input.asClassDoc().qualifiedTypeName(), input -> input));
-        JavaDocReader.classDocMap.putAll(thisRootDoc);
-        return true;
+    public JavaDocReader(List<File> elements, String sourceEncoding) {
+        Set<File> files = Sets.newLinkedHashSet();
+        elements.stream().map(File::getAbsoluteFile).forEach(files::add);
+        this.classpathElements = Collections.unmodifiableSet(files);
+        this.sourceEncoding = StringUtils.isEmpty(sourceEncoding) ? StandardCharsets.UTF_8 : Charset.forName(
+            sourceEncoding);
+        this.classDocs = CacheBuilder.newBuilder().maximumSize(MAX_CACHED_CLASSES).recordStats().build(
+            new CacheLoader<Class<?>, Optional<ClassJavaDoc>>() {
+                @Override
+                public Optional<ClassJavaDoc> load(Class<?> clazz) {
+                    return findClassJavaDoc(clazz);
+                }
+            });
+        this.sourceFiles = CacheBuilder.newBuilder().maximumSize(MAX_CACHED_SOURCE_FILES).recordStats().build(
+            new CacheLoader<String, Map<String, ClassJavaDoc>>() {
+                @Override
+                public Map<String, ClassJavaDoc> load(String sourceFile) {
+                    return readJavaDoc(sourceFile);
+                }
+            });
     }
 
     /**
-     * 根据class类路径获取javadoc
+     * 获取类的javadoc
+     * <p>
+     * 根据类所在的jar包找到对应的source jar包，只解压该类所在的java文件，没有被用到的jar包不会被打开
      *
-     * @param className class类拒绝
-     * @return java文件的javadoc
+     * @param clazz 类
+     * @return java文件的javadoc，没有源文件或源文件中没有该类时返回null
      */
-    public static ClassDoc getClassJavaDoc(String className) {
-        ClassDoc classDoc = classDocMap.get(className);
-        if (classDoc == null) {
-            for (Map<String, String> javaFileMap : jarFileMap.values()) {
-                if (StringUtils.isNotBlank(javaFileMap.get(className))) {
-                    readJavaDoc(new ArrayList<>(javaFileMap.values()));
-                    return getClassJavaDoc(className);
-                }
-            }
+    public ClassJavaDoc getClassJavaDoc(Class<?> clazz) {
+        if (clazz.getCanonicalName() == null) {
             return null;
-        } else {
-            return classDoc;
         }
+        return classDocs.getUnchecked(clazz).orElse(null);
     }
 
-    private static void readJavaDoc(List<String> javaFilePath) {
-        List<String> docArgs = Lists.newArrayList(JAVADOC_COMMAND_OPTION_DOCLET, JavaDocReader.class.getName());
-        docArgs.addAll(javaFilePath);
-        com.sun.tools.javadoc.Main.execute(docArgs.toArray(new String[0]));
+    /**
+     * 打印javadoc查找的统计信息
+     */
+    public void logStatistics() {
+        CacheStats classStats = classDocs.stats();
+        if (classStats.requestCount() == 0) {
+            return;
+        }
+        CacheStats sourceStats = sourceFiles.stats();
+        log.info(String.format("Javadoc lookups: %d hits, %d misses, %d source files parsed in %d ms",
+            classStats.hitCount(), classStats.missCount(), sourceStats.loadCount(),
+            TimeUnit.NANOSECONDS.toMillis(sourceStats.totalLoadTime())));
     }
 
     /**
-     * 解析jar包
+     * 查找类的javadoc
      *
-     * @param jarFiles jar包
+     * @param clazz 类
+     * @return javadoc，没有源文件或源文件中没有该类时为空
      */
-    public static void init(String targetPath, List<File> jarFiles) {
-        readFilePath(targetPath, jarFiles);
+    private Optional<ClassJavaDoc> findClassJavaDoc(Class<?> clazz) {
+        String entryName = toEntryName(clazz);
+        File sourceJar = findSourceJar(clazz, entryName);
+        if (sourceJar == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(
+            sourceFiles.getUnchecked(sourceJar + JAR_ENTRY_SEPARATOR + entryName).get(clazz.getCanonicalName()));
+    }
+
+    /**
+     * 查找类对应的source jar包，优先使用类所在jar包对应的source jar包，
+     * 类不是从classpath中的jar包加载时，再查找所有source jar包中是否有该java文件
+     *
+     * @param clazz 类
+     * @param entryName java文件的条目名称
+     * @return source jar包，找不到时返回null
+     */
+    private File findSourceJar(Class<?> clazz, String entryName) {
+        File classpathElement = getLocation(clazz);
+        if (classpathElement != null && classpathElements.contains(classpathElement)) {
+            return getSourceJar(classpathElement);
+        }
+        for (File element : classpathElements) {
+            File sourceJar = getSourceJar(element);
+            if (sourceJar != null && getSourceEntries(sourceJar).contains(entryName)) {
+                return sourceJar;
+            }
+        }
+        return null;
     }
 
     /**
-     * 解析jar包，解压到target目录下
+     * 获取类所在的jar包或class目录
      *
-     * @param targetPath target目录路径
-     * @param jarFiles jar文件
+     * @param clazz 类
+     * @return jar包或class目录，无法获取时返回null
      */
-    private static void readFilePath(String targetPath, List<File> jarFiles) {
+    private static File getLocation(Class<?> clazz) {
+        CodeSource codeSource = clazz.getProtectionDomain().getCodeSource();
+        if (codeSource == null || codeSource.getLocation() == null) {
+            return null;
+        }
         try {
-            doReadFilePath(targetPath, jarFiles);
-        } catch (IOException e) {
-            throw new GenerateException("文件读取错误");
+            return new File(codeSource.getLocation().toURI());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return null;
         }
     }
 
     /**
-     * 解析jar包，解压到target目录下
+     * 获取jar包对应的source jar包，如foo-1.0.jar对应foo-1.0-sources.jar
      *
-     * @param targetPath target目录路径
-     * @param jarFiles jar文件
-     * @throws IOException 异常
+     * @param classpathElement classpath中的jar包
+     * @return source jar包，不存在时返回null
      */
-    private static void doReadFilePath(String targetPath, List<File> jarFiles) throws IOException {
-        for (File jarFile : jarFiles) {
-            Map<String, String> javaFileMap = Maps.newHashMap();
-            String targetFilePath = generateFilePath(targetPath, jarFile.getName());
-            File targetFile = new File(targetFilePath);
-            JarInputStream jarIn = new JarInputStream(new BufferedInputStream(new FileInputStream(jarFile)));
-            byte[] bytes = new byte[1024];
-            while (true) {
-                ZipEntry entry = jarIn.getNextJarEntry();
-                if (entry == null) {
-                    break;
-                }
+    private File getSourceJar(File classpathElement) {
+        return sourceJarMap.computeIfAbsent(classpathElement, element -> {
+            String path = element.getPath();
+            if (!path.endsWith(JAR_FILE_SUFFIX)) {
+                return Optional.empty();
+            }
+            File sourceJar = new File(path.substring(0, path.length() - JAR_FILE_SUFFIX.length()) + SymbolConstant.MINUS
+                + SOURCE_JAR_SUFFIX);
+            return sourceJar.isFile() ? Optional.of(sourceJar) : Optional.empty();
+        }).orElse(null);
+    }
 
-                File desTemp = new File(targetFile.getAbsoluteFile() + File.separator + entry.getName());
-                //jar条目是空目录
-                if (entry.isDirectory()) {
-                    if (!desTemp.exists()) {
-                        desTemp.mkdirs();
-                    }
-                } else if (entry.getName().endsWith(JAVA_FILE_SUFFIX)) {
-                    javaFileMap.put(entry.getName().substring(0, entry.getName().length() - JAVA_FILE_SUFFIX.length())
-                            .replaceAll(File.separator, SymbolConstant.PERIOD),
-                        targetFile.getAbsolutePath() + File.separator + entry.getName());
-                    //jar条目是文件
-                    BufferedOutputStream out = new BufferedOutputStream(new FileOutputStream(desTemp));
-                    int len = jarIn.read(bytes, 0, bytes.length);
-                    while (len != -1) {
-                        out.write(bytes, 0, len);
-                        len = jarIn.read(bytes, 0, bytes.length);
+    /**
+     * 读取source jar包的目录，获取jar包中所有java文件的条目名称，不解压文件内容
+     *
+     * @param sourceJar source jar包
+     * @return java文件的条目名称
+     */
+    private Set<String> getSourceEntries(File sourceJar) {
+        return sourceEntryMap.computeIfAbsent(sourceJar, jarFile -> {
+            Set<String> entryNames = Sets.newHashSet();
+            try (ZipFile zipFile = new ZipFile(jarFile)) {
+                Enumeration<? extends ZipEntry> entries = zipFile.entries();
+                while (entries.hasMoreElements()) {
+                    String entryName = entries.nextElement().getName();
+                    if (entryName.endsWith(JAVA_FILE_SUFFIX)) {
+                        entryNames.add(entryName);
                     }
-
-                    out.flush();
-                    out.close();
                 }
-                jarIn.closeEntry();
+            } catch (IOException e) {
+                log.warn("Failed to read source jar " + jarFile, e);
             }
-            jarFileMap.put(jarFile, javaFileMap);
+            return entryNames;
+        });
+    }
+
+    /**
+     * 获取类所在java文件在source jar包中的条目名称，内部类使用最外层类所在的java文件
+     *
+     * @param clazz 类
+     * @return 条目名称，如com/example/Foo.java
+     */
+    private static String toEntryName(Class<?> clazz) {
+        Class<?> topLevelClass = clazz;
+        while (topLevelClass.getEnclosingClass() != null) {
+            topLevelClass = topLevelClass.getEnclosingClass();
         }
+        return topLevelClass.getName().replace('.', '/') + JAVA_FILE_SUFFIX;
     }
 
     /**
-     * 生成文件路径
+     * 直接从source jar包中读取java文件，解析文件中所有类的javadoc，只解压需要的条目
      *
-     * @param targetPath target目录地址
-     * @param jarFilePath jar文件地址
-     * @return jar解压后放在target目录下的位置
+     * @param sourceFile java文件，格式为"jar包路径!/条目名称"
+     * @return 文件中所有类的javadoc，key为类全路径
      */
-    private static String generateFilePath(String targetPath, String jarFilePath) {
-        int lastSeparatorIndex = jarFilePath.lastIndexOf(File.separator);
-        String fileName;
-        if (lastSeparatorIndex < 0) {
-            fileName = jarFilePath.substring(0, jarFilePath.length() - SOURCE_JAR_SUFFIX.length() - 1);
-        } else {
-            fileName = jarFilePath.substring(lastSeparatorIndex, jarFilePath.length() - SOURCE_JAR_SUFFIX.length() - 1);
+    private Map<String, ClassJavaDoc> readJavaDoc(String sourceFile) {
+        int separatorIndex = sourceFile.lastIndexOf(JAR_ENTRY_SEPARATOR);
+        File jarFile = new File(sourceFile.substring(0, separatorIndex));
+        String entryName = sourceFile.substring(separatorIndex + JAR_ENTRY_SEPARATOR.length());
+        Map<String, ClassJavaDoc> classDocMap = Maps.newHashMap();
+        try (ZipFile zipFile = new ZipFile(jarFile)) {
+            ZipEntry entry = zipFile.getEntry(entryName);
+            if (entry == null) {
+                return classDocMap;
+            }
+            String source;
+            try (InputStream inputStream = zipFile.getInputStream(entry)) {
+                source = IOUtils.toString(inputStream, sourceEncoding.name());
+            }
+            for (ClassJavaDoc classJavaDoc : JavaDocParser.parse(source)) {
+                classDocMap.put(classJavaDoc.getQualifiedName(), classJavaDoc);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to read java file " + sourceFile, e);
         }
-        return targetPath + File.separator + "sources" + File.separator + fileName;
+        return classDocMap;
     }
 }
@@ -6,11 +6,19 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
@@ -23,11 +31,11 @@ import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 
-import org.reflections.Reflections;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.annotation.AnnotationUtils;
 
+import com.github.litttlefisher.swagger.docgen.exception.GenerateException;
 import com.github.litttlefisher.swagger.docgen.jaxrs.BeanParamInjectParamExtension;
 import com.github.litttlefisher.swagger.docgen.jaxrs.JaxrsParameterExtension;
 
@@ -37,7 +45,6 @@ import io.swagger.annotations.ApiResponses;
 import io.swagger.annotations.Authorization;
 import io.swagger.annotations.AuthorizationScope;
 import io.swagger.annotations.SwaggerDefinition;
-import io.swagger.converter.ModelConverters;
 import io.swagger.jaxrs.ext.SwaggerExtension;
 import io.swagger.jaxrs.ext.SwaggerExtensions;
 import io.swagger.jersey.SwaggerJerseyJaxrs;
@@ -67,8 +74,40 @@ public class JaxrsReader extends AbstractReader implements ClassSwaggerReader {
     private static final Logger LOGGER = LoggerFactory.getLogger(JaxrsReader.class);
     private static final ResponseContainerConverter RESPONSE_CONTAINER_CONVERTER = new ResponseContainerConverter();
 
+    /** 已经合并了公共参数的类，解析这些类时不再重复解析公共参数 */
+    private final Set<Class<?>> commonParameterClasses;
+
+    /** {@link SwaggerDefinition}中定义的tag，key为tag名称，用于补充tag的描述 */
+    private Map<String, Tag> definitionTags = Collections.emptyMap();
+
+    /** 并行解析时当前线程使用的reader，全局的swagger扩展通过主reader解析参数时转交给该reader */
+    private final ThreadLocal<JaxrsReader> fragmentReader = new ThreadLocal<>();
+
     public JaxrsReader(Swagger swagger) {
         super(swagger);
+        this.commonParameterClasses = Collections.emptySet();
+    }
+
+    /**
+     * 并行解析时为每个类创建的reader，解析结果写入独立的swagger片段
+     *
+     * @param reader 主reader
+     * @param swagger swagger片段
+     * @param commonParameterClasses 已经合并了公共参数的类
+     */
+    private JaxrsReader(JaxrsReader reader, Swagger swagger, Set<Class<?>> commonParameterClasses) {
+        super(reader, swagger);
+        this.commonParameterClasses = commonParameterClasses;
+        this.definitionTags = reader.definitionTags;
+    }
+
+    /**
+     * 设置{@link SwaggerDefinition}中定义的tag，由document source统一扫描一次后传入
+     *
+     * @param definitionTags tag，key为tag名称
+     */
+    public void setDefinitionTags(Map<String, Tag> definitionTags) {
+        this.definitionTags = Collections.unmodifiableMap(new HashMap<>(definitionTags));
     }
 
     public static Annotation[][] findParamAnnotations(Method method) {
@@ -110,19 +149,168 @@ public class JaxrsReader extends AbstractReader implements ClassSwaggerReader {
 
     @Override
     public Swagger read(Set<Class<?>> classes) {
-        for (Class<?> cls : classes) {
-            read(cls);
+        if (getReaderThreads() > 1 && classes.size() > 1) {
+            readInParallel(new ArrayList<>(classes));
+        } else {
+            for (Class<?> cls : classes) {
+                readClass(cls);
+            }
         }
+        updateTagDescriptions();
         return swagger;
     }
 
+    /**
+     * 在fork-join线程池中并行解析顶层的资源类，每个类（包括其子资源）解析到独立的swagger片段中，再按类的顺序合并
+     * <p>
+     * 公共参数会影响其他类的参数是否解析为引用，串行解析时每个类只能看到它自身及之前的类定义的公共参数。
+     * 因此先并行解析各个类自身的公共参数，按类的顺序检查重复定义并计算每个类可见的公共参数，再带着各自可见的公共参数
+     * 并行解析各个类；子资源中定义了公共参数时之后的类可见的公共参数会变化，之后的类改为串行解析
+     *
+     * @param classes 资源类
+     */
+    private void readInParallel(List<Class<?>> classes) {
+        if (swagger == null) {
+            swagger = new Swagger();
+        }
+        ForkJoinPool forkJoinPool = new ForkJoinPool(Math.min(getReaderThreads(), classes.size()));
+        try {
+            Map<String, Parameter> parameters = new LinkedHashMap<>();
+            if (swagger.getParameters() != null) {
+                parameters.putAll(swagger.getParameters());
+            }
+            List<Map<String, Parameter>> commonParameters = Collections.nCopies(classes.size(),
+                new LinkedHashMap<>(parameters));
+            List<Swagger> parameterFragments = readFragments(forkJoinPool, classes, Collections.emptySet(),
+                commonParameters, JaxrsReader::readCommonParameters);
+            List<Map<String, Parameter>> visibleParameters = new ArrayList<>(classes.size());
+            for (int i = 0; i < classes.size(); i++) {
+                addCommonParameters(classes.get(i), parameterFragments.get(i), parameters);
+                visibleParameters.add(new LinkedHashMap<>(parameters));
+            }
+
+            List<Swagger> fragments = readFragments(forkJoinPool, classes, new HashSet<>(classes),
+                visibleParameters, JaxrsReader::readClass);
+            Map<String, Parameter> mergedParameters = swagger.getParameters() == null ? new LinkedHashMap<>() :
+                swagger.getParameters();
+            for (int i = 0; i < classes.size(); i++) {
+                Swagger fragment = fragments.get(i);
+                addCommonParameters(classes.get(i), fragment, mergedParameters);
+                if (swagger.getParameters() == null && !mergedParameters.isEmpty()) {
+                    swagger.setParameters(mergedParameters);
+                }
+                mergeFragment(fragment);
+                if (fragment.getParameters() != null && fragment.getParameters().size() > visibleParameters.get(i)
+                    .size()) {
+                    // 子资源中定义的公共参数
+                    classes.subList(i + 1, classes.size()).forEach(this::readClass);
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GenerateException("Interrupted while reading resource classes", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof GenerateException) {
+                throw (GenerateException) e.getCause();
+            }
+            throw new GenerateException("Failed to read resource classes", e.getCause());
+        } finally {
+            forkJoinPool.shutdownNow();
+        }
+    }
+
+    /**
+     * 并行地将每个类解析到独立的swagger片段中，片段中预先放入该类可见的公共参数
+     *
+     * @param forkJoinPool 线程池
+     * @param classes 资源类
+     * @param mergedClasses 已经合并了公共参数的类
+     * @param commonParameters 各个类可见的公共参数，顺序与classes一致
+     * @param task 解析任务
+     * @return swagger片段，顺序与classes一致
+     * @throws InterruptedException 线程被中断
+     * @throws ExecutionException 解析失败
+     */
+    private List<Swagger> readFragments(ForkJoinPool forkJoinPool, List<Class<?>> classes,
+        Set<Class<?>> mergedClasses, List<Map<String, Parameter>> commonParameters,
+        BiConsumer<JaxrsReader, Class<?>> task) throws InterruptedException, ExecutionException {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return forkJoinPool.submit(() -> IntStream.range(0, classes.size()).parallel().mapToObj(i -> {
+            Class<?> cls = classes.get(i);
+            Swagger fragment = new Swagger();
+            if (!commonParameters.get(i).isEmpty()) {
+                fragment.setParameters(new LinkedHashMap<>(commonParameters.get(i)));
+            }
+            JaxrsReader reader = new JaxrsReader(this, fragment, mergedClasses);
+            Thread currentThread = Thread.currentThread();
+            ClassLoader originalClassLoader = currentThread.getContextClassLoader();
+            currentThread.setContextClassLoader(classLoader);
+            fragmentReader.set(reader);
+            try {
+                task.accept(reader, cls);
+                return fragment;
+            } finally {
+                fragmentReader.remove();
+                currentThread.setContextClassLoader(originalClassLoader);
+            }
+        }).collect(Collectors.toList())).get();
+    }
+
+    /**
+     * 将swagger片段中新增的公共参数按顺序加入parameters，与已有的公共参数重复定义时报错
+     *
+     * @param cls 片段对应的资源类
+     * @param fragment swagger片段
+     * @param parameters 已有的公共参数，key为参数名
+     */
+    private void addCommonParameters(Class<?> cls, Swagger fragment, Map<String, Parameter> parameters) {
+        if (fragment.getParameters() == null) {
+            return;
+        }
+        for (Map.Entry<String, Parameter> entry : fragment.getParameters().entrySet()) {
+            Parameter parameter = entry.getValue();
+            Parameter commonParameter = parameters.get(entry.getKey());
+            if (commonParameter == parameter) {
+                // 已经加入过的公共参数
+                continue;
+            }
+            if (commonParameter != null && parameter.getIn().equals(commonParameter.getIn())) {
+                throw new GenerateException(
+                    "[" + cls.getCanonicalName() + "] Redefining common parameter '" + parameter.getName()
+                        + "' already defined elsewhere");
+            }
+            parameters.put(entry.getKey(), parameter);
+        }
+    }
+
+    @Override
+    public List<Parameter> extractTypes(Class<?> cls, Set<Type> typesToSkip, List<Annotation> additionalAnnotations) {
+        JaxrsReader reader = fragmentReader.get();
+        if (reader != null) {
+            return reader.extractTypes(cls, typesToSkip, additionalAnnotations);
+        }
+        return super.extractTypes(cls, typesToSkip, additionalAnnotations);
+    }
+
     @Override
     public Swagger getSwagger() {
         return swagger;
     }
 
     public Swagger read(Class<?> cls) {
-        return read(cls, "", null, false, new String[0], new String[0], new HashMap<String, Tag>(),
+        readClass(cls);
+        updateTagDescriptions();
+        return swagger;
+    }
+
+    /**
+     * 解析一个顶层的资源类，不补充tag的描述
+     *
+     * @param cls 资源类
+     */
+    private void readClass(Class<?> cls) {
+        read(cls, "", null, false, new String[0], new String[0], new HashMap<String, Tag>(),
             new ArrayList<Parameter>());
     }
 
@@ -142,7 +330,6 @@ public class JaxrsReader extends AbstractReader implements ClassSwaggerReader {
 
         Map<String, Tag> tags = updateTagsForApi(parentTags, api);
         List<SecurityRequirement> securities = getSecurityRequirements(api);
-        Map<String, Tag> discoveredTags = scanClasspathForTags();
 
         // merge consumes, produces
 
@@ -213,7 +400,6 @@ public class JaxrsReader extends AbstractReader implements ClassSwaggerReader {
                 updateOperation(apiConsumes, apiProduces, tags, securities, operation);
                 updatePath(operationPath, httpMethod, operation, method);
             }
-            updateTagDescriptions(discoveredTags);
         }
 
         return swagger;
@@ -244,7 +430,7 @@ public class JaxrsReader extends AbstractReader implements ClassSwaggerReader {
 
     private void readCommonParameters(Class<?> cls) {
         Path path = AnnotationUtils.findAnnotation(cls, Path.class);
-        if (path != null) {
+        if (path != null || commonParameterClasses.contains(cls)) {
             return;
         }
 
@@ -270,7 +456,7 @@ public class JaxrsReader extends AbstractReader implements ClassSwaggerReader {
                     if (hasCommonParameter(param)) {
                         String msg = "[" + cls.getCanonicalName() + "] Redefining common parameter '" + param.getName()
                             + "' already defined elsewhere";
-                        throw new RuntimeException(msg);
+                        throw new GenerateException(msg);
                     }
                     swagger.addParameter(param.getName(), param);
                 }
@@ -278,10 +464,13 @@ public class JaxrsReader extends AbstractReader implements ClassSwaggerReader {
         }
     }
 
-    private void updateTagDescriptions(Map<String, Tag> discoveredTags) {
+    /**
+     * 使用{@link SwaggerDefinition}中定义的描述补充tag的描述，所有类解析完成后执行一次
+     */
+    private void updateTagDescriptions() {
         if (swagger.getTags() != null) {
             for (Tag tag : swagger.getTags()) {
-                Tag rightTag = discoveredTags.get(tag.getName());
+                Tag rightTag = definitionTags.get(tag.getName());
                 if (rightTag != null && rightTag.getDescription() != null) {
                     tag.setDescription(rightTag.getDescription());
                 }
@@ -289,23 +478,6 @@ public class JaxrsReader extends AbstractReader implements ClassSwaggerReader {
         }
     }
 
-    private Map<String, Tag> scanClasspathForTags() {
-        Map<String, Tag> tags = new HashMap<>();
-        for (Class<?> aClass : new Reflections("").getTypesAnnotatedWith(SwaggerDefinition.class)) {
-            SwaggerDefinition swaggerDefinition = AnnotationUtils.findAnnotation(aClass, SwaggerDefinition.class);
-
-            for (io.swagger.annotations.Tag tag : swaggerDefinition.tags()) {
-
-                String tagName = tag.name();
-                if (!tagName.isEmpty()) {
-                    tags.put(tag.name(), new Tag().name(tag.name()).description(tag.description()));
-                }
-            }
-        }
-
-        return tags;
-    }
-
     private void handleSubResource(String[] apiConsumes, String httpMethod, String[] apiProduces, Map<String, Tag> tags,
         Method method, ApiOperation apiOperation, String operationPath, Operation operation) {
         if (isSubResource(httpMethod, method)) {
@@ -430,7 +602,7 @@ public class JaxrsReader extends AbstractReader implements ClassSwaggerReader {
             void.class) && !responseClassType.equals(javax.ws.rs.core.Response.class) && !hasApiAnnotation
             && !isSubResource(httpMethod, method)) {
             if (isPrimitive(responseClassType)) {
-                Property property = ModelConverters.getInstance().readAsProperty(responseClassType);
+                Property property = readAsProperty(responseClassType);
                 if (property != null) {
                     Property responseProperty = RESPONSE_CONTAINER_CONVERTER.withResponseContainer(responseContainer,
                         property);
@@ -439,9 +611,9 @@ public class JaxrsReader extends AbstractReader implements ClassSwaggerReader {
                         .schema(responseProperty).headers(defaultResponseHeaders));
                 }
             } else if (!responseClassType.equals(Void.class) && !responseClassType.equals(void.class)) {
-                Map<String, Model> models = ModelConverters.getInstance().read(responseClassType);
+                Map<String, Model> models = readModels(responseClassType);
                 if (models.isEmpty()) {
-                    Property p = ModelConverters.getInstance().readAsProperty(responseClassType);
+                    Property p = readAsProperty(responseClassType);
                     operation.response(responseCode, new Response().description("successful operation").schema(p)
                         .headers(defaultResponseHeaders));
                 }
@@ -451,13 +623,9 @@ public class JaxrsReader extends AbstractReader implements ClassSwaggerReader {
 
                     operation.response(responseCode, new Response().description("successful operation")
                         .schema(responseProperty).headers(defaultResponseHeaders));
-                    swagger.model(key, models.get(key));
                 }
             }
-            Map<String, Model> models = ModelConverters.getInstance().readAll(responseClassType);
-            for (Map.Entry<String, Model> entry : models.entrySet()) {
-                swagger.model(entry.getKey(), entry.getValue());
-            }
+            registerModels(responseClassType);
         }
 
         Consumes consumes = AnnotationUtils.findAnnotation(method, Consumes.class);
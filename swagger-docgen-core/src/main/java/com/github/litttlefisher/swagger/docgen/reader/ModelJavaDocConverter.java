@@ -1,6 +1,5 @@
 package com.github.litttlefisher.swagger.docgen.reader;
 
-import java.util.Arrays;
 import java.util.Iterator;
 import java.util.Map;
 
@@ -8,8 +7,6 @@ import org.apache.commons.lang3.StringUtils;
 
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.sun.javadoc.ClassDoc;
-import com.sun.tools.javadoc.ClassDocImpl;
 
 import io.swagger.converter.ModelConverter;
 import io.swagger.converter.ModelConverterContext;
@@ -24,30 +21,31 @@ import io.swagger.models.properties.Property;
  */
 public class ModelJavaDocConverter extends ModelResolver {
 
-    public ModelJavaDocConverter(ObjectMapper mapper) {
+    /** javadoc仓库 */
+    private final JavaDocReader javaDocReader;
+
+    public ModelJavaDocConverter(ObjectMapper mapper, JavaDocReader javaDocReader) {
         super(mapper);
+        this.javaDocReader = javaDocReader;
     }
 
     @Override
     public Model resolve(JavaType type, ModelConverterContext context, Iterator<ModelConverter> chain) {
         Model model = super.resolve(type, context, chain);
-        ClassDoc classJavaDoc = JavaDocReader.getClassJavaDoc(type.getRawClass().getCanonicalName());
+        ClassJavaDoc classJavaDoc = javaDocReader.getClassJavaDoc(type.getRawClass());
         if (classJavaDoc != null) {
-            if (classJavaDoc instanceof ClassDocImpl) {
-                ClassDocImpl classDocImpl = (ClassDocImpl) classJavaDoc;
-                String commentText = classDocImpl.commentText();
-                if (StringUtils.isNoneBlank(commentText) && model instanceof ModelImpl) {
-                    ModelImpl modelImpl = (ModelImpl) model;
-                    modelImpl.setName(commentText);
-                }
+            String commentText = classJavaDoc.getComment();
+            if (StringUtils.isNoneBlank(commentText) && model instanceof ModelImpl) {
+                ModelImpl modelImpl = (ModelImpl) model;
+                modelImpl.setName(commentText);
             }
 
             Map<String, Property> properties = model.getProperties();
             for (String propertyName : properties.keySet()) {
-                Property property = properties.get(propertyName);
-                Arrays.stream(classJavaDoc.fields(false)).filter(
-                    fieldJavaDoc -> propertyName.equals(fieldJavaDoc.name())).findFirst().ifPresent(
-                    fieldDoc -> property.setDescription(fieldDoc.commentText()));
+                String fieldComment = classJavaDoc.getFieldComments().get(propertyName);
+                if (fieldComment != null) {
+                    properties.get(propertyName).setDescription(fieldComment);
+                }
             }
         }
         return model;
@@ -3,12 +3,18 @@ package com.github.litttlefisher.swagger.docgen.reader;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.reflect.FieldUtils;
@@ -33,7 +39,11 @@ public class ModelModifier extends ModelResolver {
 
     /** 替代类 */
     private Map<JavaType, JavaType> modelSubstitutes = new HashMap<>();
+    /** 替代类，key为被替代类型的class，用于快速判断类型是否配置了替代类 */
+    private final Map<Class<?>, JavaType> substituteClasses = new IdentityHashMap<>();
     private List<String> apiModelPropertyAccessExclusions = new ArrayList<>();
+    /** 类中需要被排除的属性名称，根据{@link #apiModelPropertyAccessExclusions}计算，每个类只计算一次 */
+    private final Map<Class<?>, Set<String>> excludedProperties = new ConcurrentHashMap<>();
 
     public ModelModifier(ObjectMapper mapper) {
         super(mapper);
@@ -58,6 +68,7 @@ public class ModelModifier extends ModelResolver {
         }
         if (type != null && toType != null) {
             modelSubstitutes.put(type, toType);
+            substituteClasses.put(type.getRawClass(), toType);
         }
     }
 
@@ -67,15 +78,15 @@ public class ModelModifier extends ModelResolver {
 
     public void setApiModelPropertyAccessExclusions(List<String> apiModelPropertyAccessExclusions) {
         this.apiModelPropertyAccessExclusions = apiModelPropertyAccessExclusions;
+        excludedProperties.clear();
     }
 
     @Override
     public Property resolveProperty(Type type, ModelConverterContext context, Annotation[] annotations,
         Iterator<ModelConverter> chain) {
-        // for method parameter types we get here Type but we need JavaType
-        JavaType javaType = toJavaType(type);
-        if (modelSubstitutes.containsKey(javaType)) {
-            return super.resolveProperty(modelSubstitutes.get(javaType), context, annotations, chain);
+        JavaType substitute = findSubstitute(type);
+        if (substitute != null) {
+            return super.resolveProperty(substitute, context, annotations, chain);
         } else if (chain.hasNext()) {
             return chain.next().resolveProperty(type, context, annotations, chain);
         } else {
@@ -86,10 +97,9 @@ public class ModelModifier extends ModelResolver {
 
     @Override
     public Model resolve(Type type, ModelConverterContext context, Iterator<ModelConverter> chain) {
-        // for method parameter types we get here Type but we need JavaType
-        JavaType javaType = toJavaType(type);
-        if (modelSubstitutes.containsKey(javaType)) {
-            return super.resolve(modelSubstitutes.get(javaType), context, chain);
+        JavaType substitute = findSubstitute(type);
+        if (substitute != null) {
+            return super.resolve(substitute, context, chain);
         } else {
             return super.resolve(type, context, chain);
         }
@@ -104,31 +114,46 @@ public class ModelModifier extends ModelResolver {
             return model;
         }
 
-        Class<?> cls = type.getRawClass();
+        if (model == null || model.getProperties() == null) {
+            return model;
+        }
+        Set<String> excluded = excludedProperties.computeIfAbsent(type.getRawClass(), this::findExcludedProperties);
+        if (!excluded.isEmpty()) {
+            model.getProperties().keySet().removeAll(excluded);
+        }
+        return model;
+    }
 
+    /**
+     * 查找类中{@link ApiModelProperty#access()}需要被排除的属性名称
+     *
+     * @param cls 类
+     * @return 属性名称
+     */
+    private Set<String> findExcludedProperties(Class<?> cls) {
+        Set<String> excluded = new HashSet<>();
         for (Method method : cls.getDeclaredMethods()) {
             ApiModelProperty apiModelPropertyAnnotation = AnnotationUtils.findAnnotation(method,
                 ApiModelProperty.class);
 
-            processProperty(apiModelPropertyAnnotation, model);
+            processProperty(apiModelPropertyAnnotation, excluded);
         }
 
         for (Field field : FieldUtils.getAllFields(cls)) {
             ApiModelProperty apiModelPropertyAnnotation = AnnotationUtils.getAnnotation(field, ApiModelProperty.class);
 
-            processProperty(apiModelPropertyAnnotation, model);
+            processProperty(apiModelPropertyAnnotation, excluded);
         }
-
-        return model;
+        return excluded.isEmpty() ? Collections.emptySet() : Collections.unmodifiableSet(excluded);
     }
 
     /**
-     * Remove property from {@link Model} for provided {@link ApiModelProperty}.
+     * Collect the property name of provided {@link ApiModelProperty} if its access is excluded.
      *
      * @param apiModelPropertyAnnotation annotation
-     * @param model model with properties
+     * @param excluded excluded property names
      */
-    private void processProperty(ApiModelProperty apiModelPropertyAnnotation, Model model) {
+    private void processProperty(ApiModelProperty apiModelPropertyAnnotation, Set<String> excluded) {
         if (apiModelPropertyAnnotation == null) {
             return;
         }
@@ -142,12 +167,39 @@ public class ModelModifier extends ModelResolver {
         }
 
         // Check to see if the value of @ApiModelProperty#access is one to exclude.
-        // If so, remove it from the previously-calculated model.
+        // If so, it will be removed from the calculated model.
         if (apiModelPropertyAccessExclusions.contains(apiModelPropertyAccess)) {
-            model.getProperties().remove(apiModelPropertyName);
+            excluded.add(apiModelPropertyName);
         }
     }
 
+    /**
+     * 查找类型的替代类型，大部分类型没有配置替代类，直接根据class判断，
+     * 只有泛型类型的class配置了替代类时才需要构造{@link JavaType}
+     *
+     * @param type 类型
+     * @return 替代类型，没有替代类时返回null
+     */
+    private JavaType findSubstitute(Type type) {
+        if (substituteClasses.isEmpty()) {
+            return null;
+        }
+        if (type instanceof Class) {
+            return substituteClasses.get(type);
+        }
+        Class<?> rawClass = null;
+        if (type instanceof JavaType) {
+            rawClass = ((JavaType) type).getRawClass();
+        } else if (type instanceof ParameterizedType) {
+            rawClass = (Class<?>) ((ParameterizedType) type).getRawType();
+        }
+        if (rawClass != null && !substituteClasses.containsKey(rawClass)) {
+            return null;
+        }
+        // for method parameter types we get here Type but we need JavaType
+        return modelSubstitutes.get(toJavaType(type));
+    }
+
     /**
      * Converts {@link Type} to {@link JavaType}.
      *
@@ -0,0 +1,39 @@
+package com.github.litttlefisher.swagger.docgen.reader;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+
+import io.swagger.converter.ModelConverter;
+import io.swagger.converter.ModelConverterContext;
+import io.swagger.models.Model;
+import io.swagger.models.properties.Property;
+
+/**
+ * 记录转换链中解析到的类型，注册在{@link io.swagger.converter.ModelConverters}转换链的最前面
+ * <p>
+ * reader只能记录返回值、参数等最外层的类型，model中嵌套的类型（属性、集合元素等）由转换链递归解析，需要在转换链中记录，
+ * 增量解析时据此判断Controller依赖的model是否发生变化
+ *
+ * @author littlefisher
+ */
+class ReferencedClassRecorder implements ModelConverter {
+
+    @Override
+    public Property resolveProperty(Type type, ModelConverterContext context, Annotation[] annotations,
+        Iterator<ModelConverter> chain) {
+        if (chain.hasNext()) {
+            return chain.next().resolveProperty(type, context, annotations, chain);
+        }
+        return null;
+    }
+
+    @Override
+    public Model resolve(Type type, ModelConverterContext context, Iterator<ModelConverter> chain) {
+        ReferencedClasses.add(type);
+        if (chain.hasNext()) {
+            return chain.next().resolve(type, context, chain);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.litttlefisher.swagger.docgen.reader;
+
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.reflect.TypeUtils;
+
+import com.fasterxml.jackson.databind.JavaType;
+
+/**
+ * 解析过程中引用到的类，增量解析时据此判断Controller依赖的model、参数类是否发生变化
+ * <p>
+ * 记录与线程绑定，只有在{@link #record}执行期间调用{@link #add}才会被记录；带缓存的解析需要同时缓存解析时记录到的类，
+ * 命中缓存时通过{@link #addAll}补充记录
+ *
+ * @author littlefisher
+ */
+final class ReferencedClasses {
+
+    /** 当前线程正在记录的类 */
+    private static final ThreadLocal<Set<Class<?>>> RECORDING = new ThreadLocal<>();
+
+    private ReferencedClasses() {
+    }
+
+    /**
+     * 执行任务并记录任务中引用到的类
+     *
+     * @param task 任务
+     * @return 引用到的类
+     */
+    static Set<Class<?>> record(Runnable task) {
+        Set<Class<?>> classes = new HashSet<>();
+        record(() -> {
+            task.run();
+            return null;
+        }, classes);
+        return classes;
+    }
+
+    /**
+     * 执行任务并将任务中引用到的类记录到classes中，嵌套记录时内层记录到的类不会计入外层
+     *
+     * @param task 任务
+     * @param classes 记录引用到的类
+     * @param <T> 任务结果类型
+     * @return 任务结果
+     */
+    static <T> T record(Supplier<T> task, Set<Class<?>> classes) {
+        Set<Class<?>> previous = RECORDING.get();
+        RECORDING.set(classes);
+        try {
+            return task.get();
+        } finally {
+            if (previous == null) {
+                RECORDING.remove();
+            } else {
+                RECORDING.set(previous);
+            }
+        }
+    }
+
+    /**
+     * 记录引用到的类型，只记录原始类型，JDK中的类不记录
+     *
+     * @param type 类型
+     */
+    static void add(Type type) {
+        Set<Class<?>> classes = RECORDING.get();
+        if (classes == null || type == null) {
+            return;
+        }
+        Class<?> cls = type instanceof JavaType ? ((JavaType) type).getRawClass() : TypeUtils.getRawType(type, null);
+        while (cls != null && cls.isArray()) {
+            cls = cls.getComponentType();
+        }
+        if (cls != null && cls.getClassLoader() != null) {
+            classes.add(cls);
+        }
+    }
+
+    /**
+     * 补充记录缓存的解析结果引用到的类
+     *
+     * @param referencedClasses 引用到的类
+     */
+    static void addAll(Collection<Class<?>> referencedClasses) {
+        Set<Class<?>> classes = RECORDING.get();
+        if (classes != null) {
+            classes.addAll(referencedClasses);
+        }
+    }
+}
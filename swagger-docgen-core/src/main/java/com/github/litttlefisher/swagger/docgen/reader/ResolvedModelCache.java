@@ -0,0 +1,76 @@
+package com.github.litttlefisher.swagger.docgen.reader;
+
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import io.swagger.converter.ModelConverters;
+import io.swagger.models.Model;
+import lombok.Data;
+
+/**
+ * 返回类型解析结果的缓存，同一个类型在一次构建中只通过{@link ModelConverters}解析一次
+ * <p>
+ * 与reader的生命周期相同，并行解析时各线程的reader共享；解析出的model会被注册到swagger中，调用方不能修改。
+ * property会被设置到各个response中并可能被修改，不做缓存。解析时引用到的类随结果一起缓存，供增量解析记录依赖
+ *
+ * @author littlefisher
+ */
+class ResolvedModelCache {
+
+    /** {@link ModelConverters#read(Type)}的结果 */
+    private final Map<Type, Resolved<Map<String, Model>>> models = new ConcurrentHashMap<>();
+
+    /** {@link ModelConverters#readAll(Type)}的结果 */
+    private final Map<Type, Resolved<Map<String, Model>>> allModels = new ConcurrentHashMap<>();
+
+    /**
+     * 解析类型本身对应的model
+     *
+     * @param type 类型
+     * @return model，key为model名称
+     */
+    Map<String, Model> read(Type type) {
+        return resolve(models, type,
+            key -> Collections.unmodifiableMap(new LinkedHashMap<>(ModelConverters.getInstance().read(key))));
+    }
+
+    /**
+     * 解析类型及其引用到的所有model
+     *
+     * @param type 类型
+     * @return model，key为model名称
+     */
+    Map<String, Model> readAll(Type type) {
+        return resolve(allModels, type,
+            key -> Collections.unmodifiableMap(new LinkedHashMap<>(ModelConverters.getInstance().readAll(key))));
+    }
+
+    private static <T> T resolve(Map<Type, Resolved<T>> cache, Type type, Function<Type, T> resolver) {
+        Resolved<T> resolved = cache.computeIfAbsent(type, key -> {
+            Set<Class<?>> referencedClasses = new HashSet<>();
+            T value = ReferencedClasses.record(() -> resolver.apply(key), referencedClasses);
+            return new Resolved<>(value, Collections.unmodifiableSet(referencedClasses));
+        });
+        ReferencedClasses.addAll(resolved.getReferencedClasses());
+        return resolved.getValue();
+    }
+
+    /**
+     * 类型的解析结果
+     */
+    @Data
+    private static final class Resolved<T> {
+
+        /** 解析结果，可能为空 */
+        private final T value;
+
+        /** 解析时引用到的类 */
+        private final Set<Class<?>> referencedClasses;
+    }
+}
@@ -1,11 +1,13 @@
 package com.github.litttlefisher.swagger.docgen.reader;
 
 import java.lang.reflect.Method;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -25,8 +27,22 @@ public class SpringExceptionHandlerReader {
 
     private Map<Class<? extends Throwable>, ResponseStatus> exceptionMapping = new HashMap<>();
 
+    /** 被{@link ControllerAdvice}注解的类 */
+    private Set<Class<?>> controllerAdvices = Collections.emptySet();
+
     public void processExceptionHandlers(Set<Class<?>> classes) {
         exceptionMapping = generateExceptionMapping(classes);
+        controllerAdvices = classes.stream().filter(clazz -> findAnnotation(clazz, ControllerAdvice.class) != null)
+            .collect(Collectors.toSet());
+    }
+
+    /**
+     * 获取被{@link ControllerAdvice}注解的类，其中的异常处理会影响所有Controller的返回状态
+     *
+     * @return {@link ControllerAdvice}类
+     */
+    public Set<Class<?>> getControllerAdvices() {
+        return controllerAdvices;
     }
 
     protected Map<Class<? extends Throwable>, ResponseStatus> generateExceptionMapping(Set<Class<?>> classes) {
@@ -74,6 +90,7 @@ public class SpringExceptionHandlerReader {
     protected List<ResponseStatus> getResponseStatusesFromExceptions(Method method) {
         List<ResponseStatus> result = new LinkedList<ResponseStatus>();
         for (Class exceptionClass : method.getExceptionTypes()) {
+            ReferencedClasses.add(exceptionClass);
             ResponseStatus responseStatus = exceptionMapping.get(exceptionClass);
 
             // fallback to exception own annotation
@@ -1,20 +1,24 @@
 package com.github.litttlefisher.swagger.docgen.reader;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.core.DefaultParameterNameDiscoverer;
-import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -22,6 +26,7 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 import com.github.litttlefisher.swagger.docgen.exception.GenerateException;
+import com.github.litttlefisher.swagger.docgen.spring.AnnotationSnapshot;
 import com.github.litttlefisher.swagger.docgen.spring.SpringResource;
 import com.github.litttlefisher.swagger.docgen.spring.SpringSwaggerExtension;
 import com.github.litttlefisher.swagger.docgen.util.SpringUtils;
@@ -64,11 +69,45 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
      */
     private final SpringExceptionHandlerReader exceptionHandlerReader;
 
+    /**
+     * Controller类及方法上已合并的注解，每个类或方法只解析一次，与并行解析的reader共享
+     */
+    private final Map<AnnotatedElement, AnnotationSnapshot> annotationSnapshots;
+
+    /**
+     * 增量解析时各{@link SpringResource}解析时引用到的类，key为{@link SpringResource#getResourceKey()}
+     */
+    private final Map<String, Set<Class<?>>> resourceDependencies = new ConcurrentHashMap<>();
+
     private List<String> resourcePaths;
 
+    /** 增量解析的构建状态，为空时解析所有Controller */
+    private IncrementalBuildState buildState;
+
     public SpringMvcApiReader(Swagger swagger) {
         super(swagger);
         exceptionHandlerReader = new SpringExceptionHandlerReader();
+        annotationSnapshots = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * 并行解析时为每个{@link SpringResource}创建的reader，解析结果写入独立的swagger片段
+     *
+     * @param reader 主reader
+     */
+    private SpringMvcApiReader(SpringMvcApiReader reader) {
+        super(reader, new Swagger());
+        exceptionHandlerReader = reader.exceptionHandlerReader;
+        annotationSnapshots = reader.annotationSnapshots;
+    }
+
+    /**
+     * 设置增量解析的构建状态，设置后只重新解析发生变化的Controller
+     *
+     * @param buildState 构建状态
+     */
+    public void setBuildState(IncrementalBuildState buildState) {
+        this.buildState = buildState;
     }
 
     @Override
@@ -85,13 +124,133 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
         //create map - resource string (after first slash) as key, new SpringResource as value
         Map<String, SpringResource> resourceMap = generateResourceMap(classes);
         exceptionHandlerReader.processExceptionHandlers(classes);
-        for (SpringResource resource : resourceMap.values()) {
-            read(resource);
+        if (buildState != null) {
+            readIncrementally(new ArrayList<>(resourceMap.values()));
+        } else if (getReaderThreads() > 1 && resourceMap.size() > 1) {
+            readInParallel(new ArrayList<>(resourceMap.values()));
+        } else {
+            for (SpringResource resource : resourceMap.values()) {
+                read(resource);
+            }
         }
 
         return swagger;
     }
 
+    /**
+     * 在fork-join线程池中并行解析{@link SpringResource}，每个resource解析到独立的swagger片段中，
+     * 再按串行解析的顺序合并，生成的swagger与串行解析完全一致
+     *
+     * @param resources SpringMvc配置，顺序与串行解析的顺序一致
+     */
+    private void readInParallel(List<SpringResource> resources) {
+        if (swagger == null) {
+            swagger = new Swagger();
+        }
+        readFragments(resources).forEach(this::mergeFragment);
+    }
+
+    /**
+     * 增量解析：Controller及其依赖的类都没有变化的{@link SpringResource}直接使用上次构建的swagger片段，
+     * 其余的重新解析，再按串行解析的顺序合并
+     *
+     * @param resources SpringMvc配置，顺序与串行解析的顺序一致
+     */
+    private void readIncrementally(List<SpringResource> resources) {
+        if (swagger == null) {
+            swagger = new Swagger();
+        }
+        // ControllerAdvice中的异常处理会影响所有Controller的返回状态
+        buildState.checkGlobalDependencies(exceptionHandlerReader.getControllerAdvices());
+
+        List<Swagger> fragments = new ArrayList<>(resources.size());
+        List<SpringResource> changedResources = new ArrayList<>();
+        for (SpringResource resource : resources) {
+            Swagger fragment = buildState.getFragment(resource.getControllerClass(), resource.getResourceKey());
+            if (fragment == null) {
+                changedResources.add(resource);
+            }
+            fragments.add(fragment);
+        }
+
+        // model中嵌套的类型只能在转换链中记录
+        ReferencedClassRecorder recorder = new ReferencedClassRecorder();
+        ModelConverters.getInstance().addConverter(recorder);
+        Iterator<Swagger> changedFragments;
+        try {
+            changedFragments = readFragments(changedResources).iterator();
+        } finally {
+            ModelConverters.getInstance().removeConverter(recorder);
+        }
+        for (int i = 0; i < resources.size(); i++) {
+            Swagger fragment = fragments.get(i);
+            if (fragment == null) {
+                SpringResource resource = resources.get(i);
+                fragment = changedFragments.next();
+                // 合并会修改片段中的path，需要先记录
+                buildState.putFragment(resource.getControllerClass(), resource.getResourceKey(), fragment,
+                    resourceDependencies.remove(resource.getResourceKey()));
+            }
+            mergeFragment(fragment);
+        }
+        buildState.save();
+    }
+
+    /**
+     * 将每个{@link SpringResource}解析到独立的swagger片段中，配置了多个线程时在fork-join线程池中并行解析
+     *
+     * @param resources SpringMvc配置
+     * @return swagger片段，顺序与resources一致
+     */
+    private List<Swagger> readFragments(List<SpringResource> resources) {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (getReaderThreads() <= 1 || resources.size() <= 1) {
+            return resources.stream().map(resource -> readFragment(resource, classLoader)).collect(
+                Collectors.toList());
+        }
+        ForkJoinPool forkJoinPool = new ForkJoinPool(Math.min(getReaderThreads(), resources.size()));
+        try {
+            return forkJoinPool.submit(() -> resources.parallelStream().map(
+                resource -> readFragment(resource, classLoader)).collect(Collectors.toList())).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GenerateException("Interrupted while reading spring resources", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof GenerateException) {
+                throw (GenerateException) e.getCause();
+            }
+            throw new GenerateException("Failed to read spring resources", e.getCause());
+        } finally {
+            forkJoinPool.shutdownNow();
+        }
+    }
+
+    /**
+     * 将一个{@link SpringResource}解析到独立的swagger片段中
+     *
+     * @param resource SpringMvc配置
+     * @param classLoader 解析所使用的contextClassLoader
+     * @return swagger片段
+     */
+    private Swagger readFragment(SpringResource resource, ClassLoader classLoader) {
+        Thread currentThread = Thread.currentThread();
+        ClassLoader originalClassLoader = currentThread.getContextClassLoader();
+        currentThread.setContextClassLoader(classLoader);
+        try {
+            SpringMvcApiReader reader = new SpringMvcApiReader(this);
+            if (buildState == null) {
+                reader.read(resource);
+            } else {
+                // 记录解析时引用到的类，作为Controller的依赖
+                resourceDependencies.put(resource.getResourceKey(),
+                    ReferencedClasses.record(() -> reader.read(resource)));
+            }
+            return reader.getSwagger();
+        } finally {
+            currentThread.setContextClassLoader(originalClassLoader);
+        }
+    }
+
     /**
      * 解析{@link SpringResource}生成Swagger配置
      *
@@ -109,8 +268,8 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
 
         // Add the description from the controller api
         Class<?> controller = resource.getControllerClass();
-        RequestMapping controllerRequestMapping = AnnotatedElementUtils.findMergedAnnotation(controller,
-            RequestMapping.class);
+        AnnotationSnapshot controllerAnnotations = getAnnotationSnapshot(controller);
+        RequestMapping controllerRequestMapping = controllerAnnotations.getRequestMapping();
 
         String[] controllerProduces = new String[0];
         String[] controllerConsumes = new String[0];
@@ -120,7 +279,7 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
         }
 
         if (controller.isAnnotationPresent(Api.class)) {
-            Api api = AnnotatedElementUtils.findMergedAnnotation(controller, Api.class);
+            Api api = controllerAnnotations.getApi();
             if (!canReadApi(false, api)) {
                 return;
             }
@@ -131,16 +290,16 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
         resourcePaths = resource.getControllerMapping();
 
         //collect api from method with @RequestMapping
-        Map<String, List<Method>> apiMethodMap = collectApisByRequestMapping(methods);
+        Map<String, List<Method>> apiMethodMap = collectApisByRequestMapping(resource, methods);
 
         for (String path : apiMethodMap.keySet()) {
             for (Method method : apiMethodMap.get(path)) {
-                RequestMapping requestMapping = AnnotatedElementUtils.findMergedAnnotation(method,
-                    RequestMapping.class);
+                AnnotationSnapshot methodAnnotations = resource.getAnnotationSnapshot(method);
+                RequestMapping requestMapping = methodAnnotations.getRequestMapping();
                 if (requestMapping == null) {
                     continue;
                 }
-                ApiOperation apiOperation = AnnotatedElementUtils.findMergedAnnotation(method, ApiOperation.class);
+                ApiOperation apiOperation = methodAnnotations.getApiOperation();
                 if (apiOperation != null && apiOperation.hidden()) {
                     continue;
                 }
@@ -151,7 +310,7 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
                 // http method
                 for (RequestMethod requestMethod : requestMapping.method()) {
                     String httpMethod = requestMethod.toString().toLowerCase();
-                    Operation operation = parseMethod(method, requestMethod);
+                    Operation operation = parseMethod(method, methodAnnotations, requestMethod);
 
                     updateOperationParameters(new ArrayList<>(), regexMap, operation);
 
@@ -178,22 +337,23 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
      * 解析方法
      *
      * @param method 方法
+     * @param annotations 方法上的注解
      * @param requestMethod 请求方式
      * @return 组装后的包装类
      */
-    private Operation parseMethod(Method method, RequestMethod requestMethod) {
+    private Operation parseMethod(Method method, AnnotationSnapshot annotations, RequestMethod requestMethod) {
         // 默认为200，成功
         int responseCode = 200;
         Operation operation = new Operation();
 
-        RequestMapping requestMapping = AnnotatedElementUtils.findMergedAnnotation(method, RequestMapping.class);
+        RequestMapping requestMapping = annotations.getRequestMapping();
         Type responseClass = null;
         String responseContainer = null;
         // 生成一个操作编号
         String operationId = getOperationId(method, requestMethod.name());
         Map<String, Property> defaultResponseHeaders = null;
 
-        ApiOperation apiOperation = AnnotatedElementUtils.findMergedAnnotation(method, ApiOperation.class);
+        ApiOperation apiOperation = annotations.getApiOperation();
 
         if (apiOperation != null) {
             if (apiOperation.hidden()) {
@@ -240,11 +400,11 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
         operation.produces(Arrays.stream(requestMapping.produces()).distinct().collect(Collectors.toList()));
         operation.consumes(Arrays.stream(requestMapping.consumes()).distinct().collect(Collectors.toList()));
 
-        ApiResponses responseAnnotation = AnnotatedElementUtils.findMergedAnnotation(method, ApiResponses.class);
+        ApiResponses responseAnnotation = annotations.getApiResponses();
         if (responseAnnotation != null) {
             parserApiResponse(operation, responseAnnotation);
         } else {
-            ResponseStatus responseStatus = AnnotatedElementUtils.findMergedAnnotation(method, ResponseStatus.class);
+            ResponseStatus responseStatus = annotations.getResponseStatus();
             if (responseStatus != null) {
                 operation.response(responseStatus.value().value(), new Response().description(responseStatus.reason()));
             }
@@ -258,8 +418,7 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
             operation.response(code, new Response().description(description));
         });
 
-        Deprecated annotation = AnnotationUtils.findAnnotation(method, Deprecated.class);
-        if (annotation != null) {
+        if (annotations.isDeprecated()) {
             operation.deprecated(true);
         }
 
@@ -334,7 +493,7 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
         if (responseClass != null && !responseClass.equals(Void.class) && !responseClass.equals(ResponseEntity.class)
             && !hasApiAnnotation) {
             if (isPrimitive(responseClass)) {
-                Property property = ModelConverters.getInstance().readAsProperty(responseClass);
+                Property property = readAsProperty(responseClass);
                 if (property != null) {
                     Property responseProperty = RESPONSE_CONTAINER_CONVERTER.withResponseContainer(responseContainer,
                         property);
@@ -343,9 +502,9 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
                         .headers(defaultResponseHeaders));
                 }
             } else if (!responseClass.equals(Void.class) && !responseClass.equals(void.class)) {
-                Map<String, Model> models = ModelConverters.getInstance().read(responseClass);
+                Map<String, Model> models = readModels(responseClass);
                 if (models.isEmpty()) {
-                    Property pp = ModelConverters.getInstance().readAsProperty(responseClass);
+                    Property pp = readAsProperty(responseClass);
                     operation.response(responseCode, new Response().description("successful operation")
                         .responseSchema(new PropertyModelConverter().propertyToModel(pp))
                         .headers(defaultResponseHeaders));
@@ -356,25 +515,24 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
                     operation.response(responseCode, new Response().description("successful operation")
                         .responseSchema(new PropertyModelConverter().propertyToModel(responseProperty))
                         .headers(defaultResponseHeaders));
-                    swagger.model(key, models.get(key));
                 }
             }
             // 解析返回类型上的注解，组装成Model对象
-            Map<String, Model> models = ModelConverters.getInstance().readAll(responseClass);
-            models.forEach((name, model) -> swagger.model(name, model));
+            registerModels(responseClass);
         }
     }
 
     /**
      * 一个api路径下对应的方法
      *
+     * @param resource SpringMvc配置
      * @param methods Controller下的方法
      * @return 一个api路径下对应的方法
      */
-    private Map<String, List<Method>> collectApisByRequestMapping(List<Method> methods) {
+    private Map<String, List<Method>> collectApisByRequestMapping(SpringResource resource, List<Method> methods) {
         Map<String, List<Method>> apiMethodMap = Maps.newHashMap();
         for (Method method : methods) {
-            RequestMapping requestMapping = AnnotatedElementUtils.findMergedAnnotation(method, RequestMapping.class);
+            RequestMapping requestMapping = resource.getAnnotationSnapshot(method).getRequestMapping();
             if (requestMapping != null) {
                 List<String> paths;
                 if (requestMapping.value().length != 0) {
@@ -436,8 +594,8 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
                 if (method.isSynthetic()) {
                     continue;
                 }
-                RequestMapping methodRequestMapping = AnnotatedElementUtils.findMergedAnnotation(method,
-                    RequestMapping.class);
+                AnnotationSnapshot methodAnnotations = getAnnotationSnapshot(method);
+                RequestMapping methodRequestMapping = methodAnnotations.getRequestMapping();
 
                 // 解析方法上的@RequestMapping注解
                 if (methodRequestMapping != null) {
@@ -450,13 +608,13 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
                         // Check for cases where method-level @RequestMapping#value is not set, and use the controllers @RequestMapping
                         if (methodRequestMappingValues.length == 0) {
                             cacheSpringResource(controllerClazz, resourceMap, description,
-                                controllerRequestMappingValue, method, requestMappingRequestMethod);
+                                controllerRequestMappingValue, method, methodAnnotations, requestMappingRequestMethod);
                         } else {
                             // Here we know that method-level @RequestMapping#value is populated, so
                             // iterate over all the @RequestMapping#value attributes, and add them to the resource map.
                             for (String methodRequestMappingValue : methodRequestMappingValues) {
                                 cacheSpringResource(controllerClazz, resourceMap, description,
-                                    methodRequestMappingValue, method, requestMappingRequestMethod);
+                                    methodRequestMappingValue, method, methodAnnotations, requestMappingRequestMethod);
                             }
                         }
                     }
@@ -479,10 +637,12 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
      * @param description 描述
      * @param requestMappingValue 该api对应的path
      * @param method 该api对应的方法
+     * @param methodAnnotations 方法上的注解
      * @param requestMappingRequestMethod 放api的请求类型，GET|POST这样的
      */
     private void cacheSpringResource(Class<?> controllerClazz, Map<String, SpringResource> resourceMap,
-        String description, String requestMappingValue, Method method, RequestMethod requestMappingRequestMethod) {
+        String description, String requestMappingValue, Method method, AnnotationSnapshot methodAnnotations,
+        RequestMethod requestMappingRequestMethod) {
         // The map key is a concat of the following:
         //   1. The controller package
         //   2. The controller class name
@@ -492,7 +652,17 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
             resourceMap.put(resourceKey,
                 new SpringResource(controllerClazz, requestMappingValue, resourceKey, description));
         }
-        resourceMap.get(resourceKey).addMethod(method);
+        resourceMap.get(resourceKey).addMethod(method, methodAnnotations);
+    }
+
+    /**
+     * 获取Controller类或方法上已合并的注解，每个类或方法只解析一次
+     *
+     * @param element Controller类或方法
+     * @return 类或方法上的注解
+     */
+    private AnnotationSnapshot getAnnotationSnapshot(AnnotatedElement element) {
+        return annotationSnapshots.computeIfAbsent(element, AnnotationSnapshot::new);
     }
 
     /**
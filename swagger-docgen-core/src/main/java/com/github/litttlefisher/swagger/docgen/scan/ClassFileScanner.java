@@ -0,0 +1,186 @@
+package com.github.litttlefisher.swagger.docgen.scan;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+
+import org.apache.commons.lang3.StringUtils;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.reflections.ReflectionsException;
+import org.reflections.vfs.SystemDir;
+import org.reflections.vfs.Vfs;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 基于ASM的class文件扫描器
+ * <p>
+ * 直接读取class文件的字节码，只解析类名、父类、接口以及类上的注解，不会加载类，也不会触发类的静态初始化
+ *
+ * @author littlefisher
+ */
+@Slf4j
+class ClassFileScanner {
+
+    /** class文件后缀 */
+    private static final String CLASS_FILE_SUFFIX = ".class";
+
+    /** 本地文件的url协议 */
+    private static final String FILE_PROTOCOL = "file";
+
+    /** jar包条目的url协议 */
+    private static final String JAR_PROTOCOL = "jar";
+
+    /** jar包url中jar包路径与条目路径的分隔符 */
+    private static final String JAR_SEPARATOR = "!/";
+
+    /** 与Reflections的SubTypesScanner保持一致，不记录Object的子类 */
+    private static final String OBJECT_CLASS_NAME = Object.class.getName();
+
+    /** 只需要类的头部信息和注解，跳过方法体、调试信息 */
+    private static final int PARSING_OPTIONS = ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES;
+
+    private ClassFileScanner() {
+    }
+
+    /**
+     * 扫描classpath条目中指定包下的class文件
+     * <p>
+     * class目录只遍历包对应的子目录，jar包只解析包路径下的条目
+     *
+     * @param url classpath条目
+     * @param packageName 包名，为空时扫描整个条目
+     * @return 扫描结果
+     */
+    static ClasspathEntryIndex scan(URL url, String packageName) {
+        ClasspathEntryIndex entryIndex = new ClasspathEntryIndex();
+        String packagePath = toPackagePath(packageName);
+        Vfs.Dir dir;
+        try {
+            File directory = toLocalFile(url);
+            if (directory != null && directory.isDirectory()) {
+                File packageDirectory = new File(directory, packagePath);
+                if (!packageDirectory.isDirectory()) {
+                    return entryIndex;
+                }
+                dir = new SystemDir(packageDirectory);
+                packagePath = StringUtils.EMPTY;
+            } else {
+                dir = Vfs.fromURL(url);
+            }
+        } catch (ReflectionsException e) {
+            log.warn("could not create Vfs.Dir from url. ignoring the exception and continuing", e);
+            return entryIndex;
+        }
+        try {
+            for (Vfs.File file : dir.getFiles()) {
+                if (!file.getName().endsWith(CLASS_FILE_SUFFIX) || !file.getRelativePath().startsWith(packagePath)) {
+                    continue;
+                }
+                entryIndex.incrementClassCount();
+                try (InputStream inputStream = file.openInputStream()) {
+                    new ClassReader(inputStream).accept(new IndexingClassVisitor(entryIndex), PARSING_OPTIONS);
+                } catch (IOException | RuntimeException e) {
+                    log.warn("could not scan file " + file.getRelativePath() + " in url " + url.toExternalForm(), e);
+                }
+            }
+        } finally {
+            dir.close();
+        }
+        return entryIndex;
+    }
+
+    /**
+     * 将包名转换为class文件的相对路径前缀，如com.example转换为com/example/
+     *
+     * @param packageName 包名
+     * @return 路径前缀，包名为空时返回空字符串
+     */
+    static String toPackagePath(String packageName) {
+        if (StringUtils.isEmpty(packageName)) {
+            return StringUtils.EMPTY;
+        }
+        return packageName.replace('.', '/') + "/";
+    }
+
+    /**
+     * 获取classpath条目对应的本地文件，jar包条目的url形如jar:file:/path/to/lib.jar!/，取其中的jar包文件
+     *
+     * @param url classpath条目
+     * @return 本地jar包或目录，不是本地文件时返回null
+     */
+    static File toLocalFile(URL url) {
+        try {
+            URL fileUrl = url;
+            if (JAR_PROTOCOL.equals(url.getProtocol())) {
+                String path = url.getPath();
+                int separator = path.indexOf(JAR_SEPARATOR);
+                fileUrl = new URL(separator < 0 ? path : path.substring(0, separator));
+            }
+            if (!FILE_PROTOCOL.equals(fileUrl.getProtocol())) {
+                return null;
+            }
+            return new File(fileUrl.toURI());
+        } catch (MalformedURLException | URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 将内部类名（java/lang/Object）转换为类全路径（java.lang.Object）
+     */
+    private static String toClassName(String internalName) {
+        return internalName.replace('/', '.');
+    }
+
+    /**
+     * 记录类的父类、接口以及运行时可见注解
+     */
+    private static class IndexingClassVisitor extends ClassVisitor {
+
+        private final ClasspathEntryIndex entryIndex;
+
+        private String className;
+
+        IndexingClassVisitor(ClasspathEntryIndex entryIndex) {
+            super(Opcodes.ASM9);
+            this.entryIndex = entryIndex;
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName,
+            String[] interfaces) {
+            className = toClassName(name);
+            if ((access & Opcodes.ACC_INTERFACE) != 0) {
+                entryIndex.putInterface(className);
+            }
+            if (superName != null) {
+                String superClassName = toClassName(superName);
+                if (!OBJECT_CLASS_NAME.equals(superClassName)) {
+                    entryIndex.putSubType(superClassName, className);
+                }
+            }
+            if (interfaces != null) {
+                for (String anInterface : interfaces) {
+                    entryIndex.putSubType(toClassName(anInterface), className);
+                }
+            }
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
+            // 运行时不可见的注解无法通过反射获取，与Reflections一样忽略
+            if (visible) {
+                entryIndex.putAnnotatedType(Type.getType(desc).getClassName(), className);
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.github.litttlefisher.swagger.docgen.scan;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 单个classpath条目（jar包或class目录）中某个包下的扫描结果
+ *
+ * @author littlefisher
+ */
+class ClasspathEntryIndex {
+
+    /** key为注解的类全路径，value为被该注解直接标注的类（包括注解类） */
+    private final Map<String, Set<String>> annotatedTypes;
+
+    /** key为父类或接口的类全路径，value为直接继承或实现它的类 */
+    private final Map<String, Set<String>> subTypes;
+
+    /** 接口的类全路径 */
+    private final Set<String> interfaces;
+
+    /** 扫描过的class文件数量 */
+    private int classCount;
+
+    ClasspathEntryIndex() {
+        this(new HashMap<>(), new HashMap<>(), new HashSet<>(), 0);
+    }
+
+    ClasspathEntryIndex(Map<String, Set<String>> annotatedTypes, Map<String, Set<String>> subTypes,
+        Set<String> interfaces, int classCount) {
+        this.annotatedTypes = annotatedTypes;
+        this.subTypes = subTypes;
+        this.interfaces = interfaces;
+        this.classCount = classCount;
+    }
+
+    void putAnnotatedType(String annotation, String className) {
+        annotatedTypes.computeIfAbsent(annotation, key -> new HashSet<>()).add(className);
+    }
+
+    void putSubType(String superType, String className) {
+        subTypes.computeIfAbsent(superType, key -> new HashSet<>()).add(className);
+    }
+
+    void incrementClassCount() {
+        classCount++;
+    }
+
+    void putInterface(String className) {
+        interfaces.add(className);
+    }
+
+    Set<String> getAnnotatedTypes(String annotation) {
+        return annotatedTypes.getOrDefault(annotation, Collections.emptySet());
+    }
+
+    Set<String> getSubTypes(String superType) {
+        return subTypes.getOrDefault(superType, Collections.emptySet());
+    }
+
+    boolean isInterface(String className) {
+        return interfaces.contains(className);
+    }
+
+    Map<String, Set<String>> getAnnotatedTypes() {
+        return annotatedTypes;
+    }
+
+    Map<String, Set<String>> getSubTypes() {
+        return subTypes;
+    }
+
+    Set<String> getInterfaces() {
+        return interfaces;
+    }
+
+    int getClassCount() {
+        return classCount;
+    }
+}
@@ -0,0 +1,324 @@
+package com.github.litttlefisher.swagger.docgen.scan;
+
+import java.io.File;
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Inherited;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import org.reflections.Reflections;
+import org.reflections.util.ClasspathHelper;
+
+import com.github.litttlefisher.swagger.docgen.exception.GenerateException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * classpath注解索引
+ * <p>
+ * 每个classpath条目（jar包或class目录）中的每个包在一次构建中只扫描一次，扫描结果为"注解-&gt;被注解的类"以及"父类-&gt;子类"的映射，
+ * 扫描时只读取字节码，只有最终匹配的类才会被加载。
+ * 所有apiSource以及document source都通过同一个索引查询被注解的类，不再各自重复扫描classpath。
+ * 指定缓存目录时，扫描结果会保存到磁盘，下次构建中未发生变化的条目直接从缓存读取
+ *
+ * @author littlefisher
+ */
+@Slf4j
+public class ClasspathIndex {
+
+    /** 缓存文件名 */
+    public static final String CACHE_FILE_NAME = "swagger-classpath-index.json";
+
+    /** 空闲的扫描线程的存活时间，单位秒 */
+    private static final long SCAN_THREAD_KEEP_ALIVE_SECONDS = 30L;
+
+    /** 已扫描或正在扫描的范围，key为"包名@classpath条目"，扫描在map之外进行，不阻塞其他key的读写 */
+    private final Map<String, CompletableFuture<ClasspathEntryIndex>> entries = new ConcurrentHashMap<>();
+
+    /** 磁盘缓存，为空时不使用缓存 */
+    private final ClasspathIndexCache cache;
+
+    /** 并行扫描classpath条目的线程池，整个索引共用一个；空闲的线程会自动回收，为空时串行扫描 */
+    private final ThreadPoolExecutor scanExecutor;
+
+    public ClasspathIndex() {
+        this(null, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param cacheDirectory 缓存文件所在目录，一般为target目录，为空时不使用缓存
+     * @param scanThreads 并行扫描classpath条目的线程数，小于等于1时串行扫描
+     */
+    public ClasspathIndex(File cacheDirectory, int scanThreads) {
+        this.cache = cacheDirectory == null ? null : new ClasspathIndexCache(new File(cacheDirectory,
+            CACHE_FILE_NAME));
+        this.scanExecutor = scanThreads <= 1 ? null : createScanExecutor(scanThreads);
+    }
+
+    /**
+     * 创建扫描线程池，线程为守护线程且空闲时回收，索引不需要显式关闭
+     */
+    private static ThreadPoolExecutor createScanExecutor(int scanThreads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(scanThreads, scanThreads, SCAN_THREAD_KEEP_ALIVE_SECONDS,
+            TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "swagger-classpath-scan-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * 查询被annotation注解了的类，语义与{@link Reflections#getTypesAnnotatedWith(Class, boolean)}一致
+     *
+     * @param packageNames 查询范围内的包名，只扫描这些包下的class文件，包含空字符串时扫描整个classpath条目
+     * @param annotation 注解
+     * @param honorInherited true-只有{@link Inherited}注解会作用到子类，false-注解作用到所有子类
+     * @param classLoader 查找classpath条目、加载类所使用的ClassLoader
+     * @return 被注解了的类
+     */
+    public Set<Class<?>> getTypesAnnotatedWith(Collection<String> packageNames, Class<? extends Annotation> annotation,
+        boolean honorInherited, ClassLoader classLoader) {
+        List<ClasspathEntryIndex> scope = getScope(packageNames, classLoader);
+
+        Set<String> annotated = collect(scope, ClasspathEntryIndex::getAnnotatedTypes, annotation.getName());
+        Set<String> classNames = new LinkedHashSet<>(annotated);
+        if (honorInherited) {
+            if (annotation.isAnnotationPresent(Inherited.class)) {
+                // @Inherited只对父类生效，接口上的注解不会被继承，是否为接口直接从扫描结果判断，不需要加载类
+                Set<String> subTypes = new LinkedHashSet<>();
+                for (String name : annotated) {
+                    if (scope.stream().noneMatch(entryIndex -> entryIndex.isInterface(name))) {
+                        subTypes.addAll(collect(scope, ClasspathEntryIndex::getSubTypes, name));
+                    }
+                }
+                classNames.addAll(subTypes);
+                classNames.addAll(collectAll(scope, ClasspathEntryIndex::getSubTypes, subTypes));
+            }
+        } else {
+            // 被元注解标注的注解所标注的类，以及这些类的所有子类
+            Set<String> metaAnnotated = new LinkedHashSet<>(annotated);
+            metaAnnotated.addAll(collectAll(scope, ClasspathEntryIndex::getAnnotatedTypes, annotated));
+            classNames.addAll(metaAnnotated);
+            classNames.addAll(collectAll(scope, ClasspathEntryIndex::getSubTypes, metaAnnotated));
+        }
+
+        Set<Class<?>> result = new HashSet<>();
+        for (String className : classNames) {
+            result.add(forName(className, classLoader));
+        }
+        if (log.isDebugEnabled()) {
+            int visited = scope.stream().mapToInt(ClasspathEntryIndex::getClassCount).sum();
+            log.debug(String.format("%d classes matched %s, %d classes visited in %d scan scopes", result.size(),
+                annotation.getName(), visited, scope.size()));
+        }
+        return result;
+    }
+
+    /**
+     * 获取所有包在classpath中对应的扫描结果，同一classpath条目中的同一个包只会扫描一次，未扫描过的条目会并行扫描；
+     * 其他线程正在扫描的条目直接等待其结果
+     *
+     * @param packageNames 包名
+     * @param classLoader 查找classpath条目所使用的ClassLoader
+     * @return 扫描结果，顺序与classpath条目的顺序一致
+     */
+    private List<ClasspathEntryIndex> getScope(Collection<String> packageNames, ClassLoader classLoader) {
+        List<CompletableFuture<ClasspathEntryIndex>> futures = new ArrayList<>();
+        List<Runnable> tasks = new ArrayList<>();
+        for (String packageName : mergePackageNames(packageNames)) {
+            for (URL url : new LinkedHashSet<>(ClasspathHelper.forPackage(packageName, classLoader))) {
+                String key = packageName + "@" + url;
+                CompletableFuture<ClasspathEntryIndex> future = entries.get(key);
+                if (future == null) {
+                    CompletableFuture<ClasspathEntryIndex> created = new CompletableFuture<>();
+                    future = entries.putIfAbsent(key, created);
+                    if (future == null) {
+                        future = created;
+                        tasks.add(() -> loadEntry(key, url, packageName, created));
+                    }
+                }
+                futures.add(future);
+            }
+        }
+
+        if (scanExecutor == null || tasks.size() <= 1) {
+            tasks.forEach(Runnable::run);
+        } else {
+            tasks.forEach(scanExecutor::execute);
+        }
+        List<ClasspathEntryIndex> scope = new ArrayList<>();
+        for (CompletableFuture<ClasspathEntryIndex> future : futures) {
+            scope.add(getResult(future));
+        }
+        return scope;
+    }
+
+    /**
+     * 等待扫描结果
+     *
+     * @param future 扫描任务
+     * @return 扫描结果
+     */
+    private ClasspathEntryIndex getResult(CompletableFuture<ClasspathEntryIndex> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GenerateException("Interrupted while scanning classpath", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof GenerateException) {
+                throw (GenerateException) e.getCause();
+            }
+            throw new GenerateException("Failed to scan classpath", e.getCause());
+        }
+    }
+
+    /**
+     * 合并包名，去掉已经被其他包包含的子包，避免同一个class文件被重复扫描
+     *
+     * @param packageNames 包名
+     * @return 合并后的包名
+     */
+    private Set<String> mergePackageNames(Collection<String> packageNames) {
+        Set<String> merged = new LinkedHashSet<>();
+        for (String packageName : new TreeSet<>(packageNames)) {
+            if (merged.stream().noneMatch(
+                parent -> parent.isEmpty() || packageName.equals(parent) || packageName.startsWith(parent + "."))) {
+                merged.add(packageName);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * 保存扫描结果到磁盘缓存
+     */
+    public void saveCache() {
+        if (cache != null) {
+            cache.save();
+        }
+    }
+
+    /**
+     * 读取扫描结果并设置到future中，失败时移除该范围，后续查询会重新扫描
+     *
+     * @param key 扫描范围的key
+     * @param url classpath条目
+     * @param packageName 扫描的包名
+     * @param future 扫描结果
+     */
+    private void loadEntry(String key, URL url, String packageName, CompletableFuture<ClasspathEntryIndex> future) {
+        try {
+            future.complete(loadEntry(key, url, packageName));
+        } catch (Throwable e) {
+            entries.remove(key, future);
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * 优先从磁盘缓存读取扫描结果，条目发生变化或没有缓存时重新扫描
+     *
+     * @param key 扫描范围的key
+     * @param url classpath条目
+     * @param packageName 扫描的包名
+     * @return 扫描结果
+     */
+    private ClasspathEntryIndex loadEntry(String key, URL url, String packageName) {
+        String fingerprint = cache == null ? null : ClasspathIndexCache.fingerprint(url, packageName);
+        if (fingerprint != null) {
+            ClasspathEntryIndex cached = cache.get(key, fingerprint);
+            if (cached != null) {
+                log.debug("Using cached scan result of " + key);
+                return cached;
+            }
+        }
+        ClasspathEntryIndex entryIndex = scan(url, packageName);
+        if (fingerprint != null) {
+            cache.put(key, fingerprint, entryIndex);
+        }
+        return entryIndex;
+    }
+
+    /**
+     * 扫描classpath条目中指定包下的class文件，只读取class文件的字节码，不加载类
+     *
+     * @param url classpath条目
+     * @param packageName 扫描的包名
+     * @return 扫描结果
+     */
+    private ClasspathEntryIndex scan(URL url, String packageName) {
+        long start = System.currentTimeMillis();
+        ClasspathEntryIndex entryIndex = ClassFileScanner.scan(url, packageName);
+        log.debug(String.format("Scanned package '%s' of %s in %d ms, %d classes visited", packageName, url,
+            System.currentTimeMillis() - start, entryIndex.getClassCount()));
+        return entryIndex;
+    }
+
+    /**
+     * 在查询范围内查询key对应的值
+     *
+     * @param scope 查询范围
+     * @param getter 查询的映射
+     * @param key key
+     * @return 所有条目中key对应的值
+     */
+    private Set<String> collect(List<ClasspathEntryIndex> scope,
+        BiFunction<ClasspathEntryIndex, String, Set<String>> getter, String key) {
+        Set<String> result = new LinkedHashSet<>();
+        for (ClasspathEntryIndex entryIndex : scope) {
+            result.addAll(getter.apply(entryIndex, key));
+        }
+        return result;
+    }
+
+    /**
+     * 在查询范围内递归查询keys对应的值，不包括keys本身
+     *
+     * @param scope 查询范围
+     * @param getter 查询的映射
+     * @param keys keys
+     * @return 所有条目中keys递归对应的值
+     */
+    private Set<String> collectAll(List<ClasspathEntryIndex> scope,
+        BiFunction<ClasspathEntryIndex, String, Set<String>> getter, Collection<String> keys) {
+        Set<String> result = new LinkedHashSet<>();
+        Deque<String> queue = new ArrayDeque<>(keys);
+        while (!queue.isEmpty()) {
+            for (String value : collect(scope, getter, queue.poll())) {
+                if (result.add(value)) {
+                    queue.add(value);
+                }
+            }
+        }
+        return result;
+    }
+
+    private Class<?> forName(String className, ClassLoader classLoader) {
+        try {
+            return classLoader.loadClass(className);
+        } catch (Throwable e) {
+            throw new GenerateException("could not get type for name " + className, e);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.github.litttlefisher.swagger.docgen.scan;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * classpath注解索引的磁盘缓存
+ * <p>
+ * 每个classpath条目的每个扫描包以"包名@路径"为key，以文件大小、修改时间计算出的指纹校验是否变化，只有发生变化的jar包或class目录才会重新扫描
+ *
+ * @author littlefisher
+ */
+@Slf4j
+class ClasspathIndexCache {
+
+    /** 缓存文件格式版本，格式变更时需要修改，旧版本的缓存文件会被忽略 */
+    private static final int VERSION = 3;
+
+    /** class文件后缀 */
+    private static final String CLASS_FILE_SUFFIX = ".class";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final File cacheFile;
+
+    /** 从缓存文件中读取到的条目 */
+    private final Map<String, CachedEntry> cachedEntries;
+
+    /** 本次构建中用到的条目，保存时只保留这些条目 */
+    private final Map<String, CachedEntry> usedEntries = new ConcurrentHashMap<>();
+
+    private final AtomicInteger hits = new AtomicInteger();
+
+    private final AtomicInteger misses = new AtomicInteger();
+
+    ClasspathIndexCache(File cacheFile) {
+        this.cacheFile = cacheFile;
+        this.cachedEntries = load();
+    }
+
+    /**
+     * 读取缓存的扫描结果
+     *
+     * @param key 扫描范围的key
+     * @param fingerprint 条目当前的指纹
+     * @return 指纹一致时返回缓存的扫描结果，否则返回null
+     */
+    ClasspathEntryIndex get(String key, String fingerprint) {
+        CachedEntry cachedEntry = cachedEntries.get(key);
+        if (cachedEntry == null || !fingerprint.equals(cachedEntry.getFingerprint())) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        usedEntries.put(key, cachedEntry);
+        return new ClasspathEntryIndex(cachedEntry.getAnnotatedTypes(), cachedEntry.getSubTypes(),
+            cachedEntry.getInterfaces(), cachedEntry.getClassCount());
+    }
+
+    /**
+     * 记录新的扫描结果
+     *
+     * @param key 扫描范围的key
+     * @param fingerprint 条目当前的指纹
+     * @param entryIndex 扫描结果
+     */
+    void put(String key, String fingerprint, ClasspathEntryIndex entryIndex) {
+        CachedEntry cachedEntry = new CachedEntry();
+        cachedEntry.setFingerprint(fingerprint);
+        cachedEntry.setAnnotatedTypes(entryIndex.getAnnotatedTypes());
+        cachedEntry.setSubTypes(entryIndex.getSubTypes());
+        cachedEntry.setInterfaces(entryIndex.getInterfaces());
+        cachedEntry.setClassCount(entryIndex.getClassCount());
+        usedEntries.put(key, cachedEntry);
+    }
+
+    /**
+     * 将本次构建用到的条目写入缓存文件，先写临时文件再替换，避免中断时留下损坏的缓存
+     */
+    void save() {
+        log.info(String.format("Classpath index: %d entries served from cache, %d entries scanned", hits.get(),
+            misses.get()));
+        if (misses.get() == 0 && usedEntries.size() == cachedEntries.size()) {
+            return;
+        }
+        CacheFile content = new CacheFile();
+        content.setVersion(VERSION);
+        content.setEntries(new TreeMap<>(usedEntries));
+        try {
+            Files.createDirectories(cacheFile.getAbsoluteFile().getParentFile().toPath());
+            Path tempFile = Files.createTempFile(cacheFile.getAbsoluteFile().getParentFile().toPath(),
+                cacheFile.getName(), ".tmp");
+            mapper.writeValue(tempFile.toFile(), content);
+            Files.move(tempFile, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.warn("Failed to write classpath index cache " + cacheFile, e);
+        }
+    }
+
+    private Map<String, CachedEntry> load() {
+        if (!cacheFile.isFile()) {
+            return Collections.emptyMap();
+        }
+        try {
+            CacheFile content = mapper.readValue(cacheFile, CacheFile.class);
+            if (content.getVersion() != VERSION || content.getEntries() == null) {
+                return Collections.emptyMap();
+            }
+            return content.getEntries();
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable classpath index cache " + cacheFile, e);
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * 计算classpath条目的指纹，jar包使用文件大小和修改时间，class目录使用包目录下所有class文件的相对路径、大小和修改时间
+     *
+     * @param url classpath条目
+     * @param packageName 扫描的包名
+     * @return 指纹，不是本地文件时返回null，表示不能缓存
+     */
+    static String fingerprint(URL url, String packageName) {
+        File file = ClassFileScanner.toLocalFile(url);
+        if (file == null) {
+            return null;
+        }
+        if (file.isFile()) {
+            return "file:" + file.length() + ":" + file.lastModified();
+        }
+        if (!file.isDirectory()) {
+            return null;
+        }
+        File packageDirectory = new File(file, ClassFileScanner.toPackagePath(packageName));
+        if (!packageDirectory.isDirectory()) {
+            return "dir:0";
+        }
+        Path root = file.toPath();
+        try (Stream<Path> paths = Files.walk(packageDirectory.toPath())) {
+            List<Path> classFiles = paths.filter(path -> path.toString().endsWith(CLASS_FILE_SUFFIX)).sorted()
+                .collect(Collectors.toList());
+            CRC32 crc = new CRC32();
+            for (Path path : classFiles) {
+                File classFile = path.toFile();
+                String line = root.relativize(path) + ":" + classFile.length() + ":" + classFile.lastModified();
+                crc.update(line.getBytes(StandardCharsets.UTF_8));
+            }
+            return "dir:" + classFiles.size() + ":" + Long.toHexString(crc.getValue());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 缓存文件内容
+     */
+    @Data
+    static class CacheFile {
+        private int version;
+        private Map<String, CachedEntry> entries;
+    }
+
+    /**
+     * 缓存的单个classpath条目
+     */
+    @Data
+    static class CachedEntry {
+        private String fingerprint;
+        private Map<String, Set<String>> annotatedTypes;
+        private Map<String, Set<String>> subTypes;
+        private Set<String> interfaces;
+        private int classCount;
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.litttlefisher.swagger.docgen.spring;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponses;
+import lombok.Getter;
+
+/**
+ * Controller类或方法上解析SpringMvc api所需的注解
+ * <p>
+ * 合并注解（{@link AnnotatedElementUtils#findMergedAnnotation}）的开销较大，每个类或方法只解析一次，
+ * 解析结果在{@link SpringResource}之间共享
+ *
+ * @author littlefisher
+ */
+@Getter
+public class AnnotationSnapshot {
+
+    private final RequestMapping requestMapping;
+
+    private final Api api;
+
+    private final ApiOperation apiOperation;
+
+    private final ApiResponses apiResponses;
+
+    private final ResponseStatus responseStatus;
+
+    /** 是否被{@link Deprecated}注解 */
+    private final boolean deprecated;
+
+    /**
+     * 解析类或方法上的注解
+     *
+     * @param element Controller类或方法
+     */
+    public AnnotationSnapshot(AnnotatedElement element) {
+        this.requestMapping = AnnotatedElementUtils.findMergedAnnotation(element, RequestMapping.class);
+        this.api = AnnotatedElementUtils.findMergedAnnotation(element, Api.class);
+        this.apiOperation = AnnotatedElementUtils.findMergedAnnotation(element, ApiOperation.class);
+        this.apiResponses = AnnotatedElementUtils.findMergedAnnotation(element, ApiResponses.class);
+        this.responseStatus = AnnotatedElementUtils.findMergedAnnotation(element, ResponseStatus.class);
+        this.deprecated = findDeprecated(element) != null;
+    }
+
+    /**
+     * 方法上的注解需要同时查找父类、接口中被重写的方法
+     */
+    private static Deprecated findDeprecated(AnnotatedElement element) {
+        if (element instanceof Method) {
+            return AnnotationUtils.findAnnotation((Method) element, Deprecated.class);
+        }
+        if (element instanceof Class) {
+            return AnnotationUtils.findAnnotation((Class<?>) element, Deprecated.class);
+        }
+        return AnnotationUtils.findAnnotation(element, Deprecated.class);
+    }
+}
@@ -3,7 +3,9 @@ package com.github.litttlefisher.swagger.docgen.spring;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
@@ -23,6 +25,8 @@ public class SpringResource {
     private Class<?> controllerClass;
     /** 该方法支持的 */
     private List<Method> methods;
+    /** 方法上解析SpringMvc api所需的注解，key为{@link #methods}中的方法 */
+    private Map<Method, AnnotationSnapshot> methodAnnotations;
     /**
      * controller上配置的RequestMapping路径
      */
@@ -43,6 +47,7 @@ public class SpringResource {
         this.resourceKey = resourceKey;
         this.description = description;
         methods = new ArrayList<>();
+        methodAnnotations = new LinkedHashMap<>();
 
         String[] controllerRequestMappingValues = SpringUtils.getControllerRequestMapping(controllerClass);
         // 去除最后一个分隔符
@@ -51,6 +56,27 @@ public class SpringResource {
     }
 
     public void addMethod(Method m) {
+        addMethod(m, new AnnotationSnapshot(m));
+    }
+
+    /**
+     * 添加方法，同时记录已解析的方法注解
+     *
+     * @param m 方法
+     * @param annotations 方法上的注解
+     */
+    public void addMethod(Method m, AnnotationSnapshot annotations) {
         this.methods.add(m);
+        this.methodAnnotations.put(m, annotations);
+    }
+
+    /**
+     * 获取方法上的注解
+     *
+     * @param m 方法
+     * @return 方法上的注解
+     */
+    public AnnotationSnapshot getAnnotationSnapshot(Method m) {
+        return methodAnnotations.computeIfAbsent(m, AnnotationSnapshot::new);
     }
 }
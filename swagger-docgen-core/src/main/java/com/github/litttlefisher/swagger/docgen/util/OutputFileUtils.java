@@ -0,0 +1,125 @@
+package com.github.litttlefisher.swagger.docgen.util;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+import com.github.litttlefisher.swagger.docgen.constant.SymbolConstant;
+import com.github.litttlefisher.swagger.docgen.exception.GenerateException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 输出文件写入工具
+ * <p>
+ * 内容先写入目标文件所在目录的临时文件，写入的同时计算摘要，与目标文件的摘要不同时才通过重命名原子替换目标文件，
+ * 内容没有变化时保留原文件，不改变其修改时间
+ *
+ * @author littlefisher
+ */
+@Slf4j
+public class OutputFileUtils {
+
+    /** 摘要算法 */
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    /** 临时文件后缀 */
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    /** 读取原文件计算摘要时的缓冲区大小 */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * 写入文件内容
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+
+        /**
+         * 将内容写入writer
+         *
+         * @param writer 文件的writer
+         * @throws IOException 写文件异常
+         */
+        void write(Writer writer) throws IOException;
+    }
+
+    /**
+     * 写入文件，内容没有变化时不替换原文件
+     *
+     * @param file 目标文件
+     * @param charset 字符集
+     * @param contentWriter 写入文件内容
+     * @return true-文件被写入，false-内容没有变化
+     * @throws IOException 写文件异常
+     */
+    public static boolean write(File file, Charset charset, ContentWriter contentWriter) throws IOException {
+        File target = file.getAbsoluteFile();
+        File tempFile = File.createTempFile(SymbolConstant.PERIOD + target.getName() + SymbolConstant.PERIOD,
+            TEMP_FILE_SUFFIX, target.getParentFile());
+        try {
+            MessageDigest digest = newDigest();
+            try (Writer out = new BufferedWriter(
+                new OutputStreamWriter(new DigestOutputStream(new FileOutputStream(tempFile), digest), charset))) {
+                contentWriter.write(out);
+            }
+            if (target.isFile() && target.length() == tempFile.length() && Arrays.equals(digest.digest(),
+                digest(target))) {
+                log.info("File " + target + " is unchanged, skip writing");
+                return false;
+            }
+            move(tempFile, target);
+            log.info("File " + target + " is changed, replaced");
+            return true;
+        } finally {
+            Files.deleteIfExists(tempFile.toPath());
+        }
+    }
+
+    /**
+     * 重命名临时文件替换目标文件，文件系统不支持原子重命名时直接替换
+     */
+    private static void move(File source, File target) throws IOException {
+        try {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * 计算已有文件的摘要
+     */
+    private static byte[] digest(File file) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return digest.digest();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new GenerateException(e);
+        }
+    }
+}
@@ -21,11 +21,11 @@ public class TypeUtils {
      * 是否是基础数据类型
      *
      * @param cls 要校验的类
-     * @return true-是，false-不是
+     * @return true-是，false-不是，无法解析为property的类型（如Class）不是基础数据类型
      */
     public static boolean isPrimitive(Type cls) {
 
         Property property = ModelConverters.getInstance().readAsProperty(cls);
-        return PRIMITIVE.stream().anyMatch(input -> input.equals(property.getType()));
+        return property != null && PRIMITIVE.stream().anyMatch(input -> input.equals(property.getType()));
     }
 }
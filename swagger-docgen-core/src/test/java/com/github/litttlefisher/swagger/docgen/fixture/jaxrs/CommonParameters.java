@@ -0,0 +1,22 @@
+package com.github.litttlefisher.swagger.docgen.fixture.jaxrs;
+
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.QueryParam;
+
+import io.swagger.annotations.ApiParam;
+
+/**
+ * 公共参数，其他资源类中的同名参数解析为对公共参数的引用
+ *
+ * @author littlefisher
+ */
+public class CommonParameters {
+
+    @HeaderParam("X-Tenant")
+    @ApiParam(value = "租户", required = true)
+    private String tenant;
+
+    @QueryParam("locale")
+    @ApiParam("语言")
+    private String locale;
+}
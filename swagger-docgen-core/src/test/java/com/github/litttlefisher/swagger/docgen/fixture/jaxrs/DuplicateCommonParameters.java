@@ -0,0 +1,14 @@
+package com.github.litttlefisher.swagger.docgen.fixture.jaxrs;
+
+import javax.ws.rs.HeaderParam;
+
+/**
+ * 重复定义了{@link CommonParameters}中的公共参数
+ *
+ * @author littlefisher
+ */
+public class DuplicateCommonParameters {
+
+    @HeaderParam("X-Tenant")
+    private String tenant;
+}
@@ -0,0 +1,38 @@
+package com.github.litttlefisher.swagger.docgen.fixture.jaxrs;
+
+import java.util.List;
+
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.QueryParam;
+
+import com.github.litttlefisher.swagger.docgen.fixture.model.Item;
+import com.github.litttlefisher.swagger.docgen.fixture.model.Result;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+
+/**
+ * 商品资源，与{@link PetResource}共用一个tag
+ *
+ * @author littlefisher
+ */
+@Path("/items")
+@Api(tags = {"items", "pets"})
+public class ItemResource {
+
+    @GET
+    @ApiOperation("查询商品列表")
+    public List<Item> list(@QueryParam("locale") String locale, @QueryParam("limit") @DefaultValue("10") int limit) {
+        return null;
+    }
+
+    @GET
+    @Path("/{id}")
+    @ApiOperation("查询商品")
+    public Result<Item> get(@PathParam("id") long id) {
+        return null;
+    }
+}
@@ -0,0 +1,33 @@
+package com.github.litttlefisher.swagger.docgen.fixture.jaxrs;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.PUT;
+import javax.ws.rs.Path;
+import javax.ws.rs.QueryParam;
+
+import com.github.litttlefisher.swagger.docgen.fixture.model.Owner;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+
+/**
+ * 宠物的主人，路径在{@link PetResource}之下
+ *
+ * @author littlefisher
+ */
+@Path("/pets/{id}/owner")
+@Api(tags = {"owners", "pets"})
+public class OwnerResource {
+
+    @GET
+    @ApiOperation("查询主人")
+    public Owner get(@QueryParam("locale") String locale) {
+        return null;
+    }
+
+    @PUT
+    @ApiOperation("修改主人")
+    public Owner update(Owner owner) {
+        return null;
+    }
+}
@@ -0,0 +1,38 @@
+package com.github.litttlefisher.swagger.docgen.fixture.jaxrs;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+import com.github.litttlefisher.swagger.docgen.fixture.model.Pet;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+
+/**
+ * 宠物资源
+ *
+ * @author littlefisher
+ */
+@Path("/pets")
+@Api(tags = "pets")
+@Produces(MediaType.APPLICATION_JSON)
+public class PetResource {
+
+    @GET
+    @Path("/{id}")
+    @ApiOperation("查询宠物")
+    public Pet get(@PathParam("id") long id, @HeaderParam("X-Tenant") String tenant) {
+        return null;
+    }
+
+    @POST
+    @ApiOperation("新增宠物")
+    public Pet add(Pet pet) {
+        return null;
+    }
+}
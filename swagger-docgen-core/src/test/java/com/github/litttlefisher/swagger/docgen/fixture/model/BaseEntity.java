@@ -0,0 +1,18 @@
+package com.github.litttlefisher.swagger.docgen.fixture.model;
+
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+/**
+ * 实体基类
+ *
+ * @author littlefisher
+ */
+@Data
+public class BaseEntity {
+
+    @ApiModelProperty(value = "id", example = "42")
+    private Long id;
+
+    private String remark;
+}
@@ -0,0 +1,13 @@
+package com.github.litttlefisher.swagger.docgen.fixture.model;
+
+/**
+ * 颜色
+ *
+ * @author littlefisher
+ */
+public enum Color {
+    /** 红色 */
+    RED,
+    /** 绿色 */
+    GREEN
+}
@@ -0,0 +1,29 @@
+package com.github.litttlefisher.swagger.docgen.fixture.model;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 商品，价格的取值范围带有小数位，用于检查数值能否原样还原
+ *
+ * @author littlefisher
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class Item extends BaseEntity {
+
+    @ApiModelProperty(value = "价格", allowableValues = "range[1.50, 100]", example = "9.90")
+    private BigDecimal price;
+
+    private Color color;
+
+    private Date created;
+
+    private Map<String, List<Item>> children;
+}
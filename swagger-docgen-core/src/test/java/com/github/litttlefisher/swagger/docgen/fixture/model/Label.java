@@ -0,0 +1,14 @@
+package com.github.litttlefisher.swagger.docgen.fixture.model;
+
+import lombok.Data;
+
+/**
+ * 标签
+ *
+ * @author littlefisher
+ */
+@Data
+public class Label {
+
+    private String value;
+}
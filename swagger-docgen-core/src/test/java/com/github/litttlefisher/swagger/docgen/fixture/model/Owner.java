@@ -0,0 +1,16 @@
+package com.github.litttlefisher.swagger.docgen.fixture.model;
+
+import lombok.Data;
+
+/**
+ * 主人，通过{@link Pet}间接引用{@link Label}
+ *
+ * @author littlefisher
+ */
+@Data
+public class Owner {
+
+    private String name;
+
+    private Pet pet;
+}
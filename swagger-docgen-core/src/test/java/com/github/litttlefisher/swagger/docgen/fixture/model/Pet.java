@@ -0,0 +1,22 @@
+package com.github.litttlefisher.swagger.docgen.fixture.model;
+
+import java.util.List;
+
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+/**
+ * 宠物
+ *
+ * @author littlefisher
+ */
+@Data
+public class Pet {
+
+    @ApiModelProperty(value = "名称", required = true)
+    private String name;
+
+    private int age;
+
+    private List<Label> labels;
+}
@@ -0,0 +1,17 @@
+package com.github.litttlefisher.swagger.docgen.fixture.model;
+
+import lombok.Data;
+
+/**
+ * 统一返回结果
+ *
+ * @param <T> 数据类型
+ * @author littlefisher
+ */
+@Data
+public class Result<T> {
+
+    private T data;
+
+    private int code;
+}
@@ -0,0 +1,18 @@
+package com.github.litttlefisher.swagger.docgen.fixture.scan;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 可被子类继承的标记注解
+ *
+ * @author littlefisher
+ */
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface InheritedMarker {
+}
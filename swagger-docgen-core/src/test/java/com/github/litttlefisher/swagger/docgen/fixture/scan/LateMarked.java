@@ -0,0 +1,10 @@
+package com.github.litttlefisher.swagger.docgen.fixture.scan;
+
+/**
+ * 缓存测试中后加入类路径的类
+ *
+ * @author littlefisher
+ */
+@Marker
+public class LateMarked {
+}
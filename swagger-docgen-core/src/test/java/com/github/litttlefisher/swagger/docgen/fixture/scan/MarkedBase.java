@@ -0,0 +1,11 @@
+package com.github.litttlefisher.swagger.docgen.fixture.scan;
+
+/**
+ * 同时标注了可继承与不可继承注解的基类
+ *
+ * @author littlefisher
+ */
+@InheritedMarker
+@Marker
+public class MarkedBase {
+}
@@ -0,0 +1,9 @@
+package com.github.litttlefisher.swagger.docgen.fixture.scan;
+
+/**
+ * {@link MarkedBase}的子类
+ *
+ * @author littlefisher
+ */
+public class MarkedChild extends MarkedBase {
+}
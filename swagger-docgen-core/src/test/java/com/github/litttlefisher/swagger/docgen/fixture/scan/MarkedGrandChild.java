@@ -0,0 +1,9 @@
+package com.github.litttlefisher.swagger.docgen.fixture.scan;
+
+/**
+ * {@link MarkedChild}的子类
+ *
+ * @author littlefisher
+ */
+public class MarkedGrandChild extends MarkedChild {
+}
@@ -0,0 +1,11 @@
+package com.github.litttlefisher.swagger.docgen.fixture.scan;
+
+/**
+ * 标注了注解的接口，{@link java.lang.annotation.Inherited}对接口不生效
+ *
+ * @author littlefisher
+ */
+@InheritedMarker
+@Marker
+public interface MarkedInterface {
+}
@@ -0,0 +1,9 @@
+package com.github.litttlefisher.swagger.docgen.fixture.scan;
+
+/**
+ * {@link MarkedInterface}的实现类
+ *
+ * @author littlefisher
+ */
+public class MarkedInterfaceImpl implements MarkedInterface {
+}
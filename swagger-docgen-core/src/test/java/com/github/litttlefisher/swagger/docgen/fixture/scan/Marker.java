@@ -0,0 +1,16 @@
+package com.github.litttlefisher.swagger.docgen.fixture.scan;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 不可继承的标记注解，也可作为元注解
+ *
+ * @author littlefisher
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.ANNOTATION_TYPE})
+public @interface Marker {
+}
@@ -0,0 +1,10 @@
+package com.github.litttlefisher.swagger.docgen.fixture.scan;
+
+/**
+ * 通过{@link MetaMarker}间接标注了{@link Marker}的类
+ *
+ * @author littlefisher
+ */
+@MetaMarker
+public class MetaMarked {
+}
@@ -0,0 +1,17 @@
+package com.github.litttlefisher.swagger.docgen.fixture.scan;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 被{@link Marker}标注的组合注解
+ *
+ * @author littlefisher
+ */
+@Marker
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface MetaMarker {
+}
@@ -0,0 +1,9 @@
+package com.github.litttlefisher.swagger.docgen.fixture.scan;
+
+/**
+ * 没有任何标记的类
+ *
+ * @author littlefisher
+ */
+public class Unmarked {
+}
@@ -0,0 +1,12 @@
+package com.github.litttlefisher.swagger.docgen.fixture.scan.sub;
+
+import com.github.litttlefisher.swagger.docgen.fixture.scan.Marker;
+
+/**
+ * 子包中被标记的类
+ *
+ * @author littlefisher
+ */
+@Marker
+public class SubPackageMarked {
+}
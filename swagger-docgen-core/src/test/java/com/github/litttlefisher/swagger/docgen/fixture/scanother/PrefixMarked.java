@@ -0,0 +1,12 @@
+package com.github.litttlefisher.swagger.docgen.fixture.scanother;
+
+import com.github.litttlefisher.swagger.docgen.fixture.scan.Marker;
+
+/**
+ * 包名与{@code fixture.scan}前缀相同但不属于该包的类
+ *
+ * @author littlefisher
+ */
+@Marker
+public class PrefixMarked {
+}
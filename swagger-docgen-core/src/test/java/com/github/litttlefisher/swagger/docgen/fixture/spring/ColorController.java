@@ -0,0 +1,31 @@
+package com.github.litttlefisher.swagger.docgen.fixture.spring;
+
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.github.litttlefisher.swagger.docgen.fixture.model.Color;
+
+import io.swagger.annotations.Api;
+
+/**
+ * 颜色接口
+ *
+ * @author littlefisher
+ */
+@RestController
+@RequestMapping("/colors")
+@Api(tags = "colors")
+public class ColorController {
+
+    @RequestMapping(method = RequestMethod.GET)
+    public Color[] all(@RequestParam(value = "color", defaultValue = "RED") Color color) {
+        return null;
+    }
+
+    @RequestMapping(value = "/{name}", method = RequestMethod.DELETE)
+    public void remove(@PathVariable("name") String name) throws ConflictException {
+    }
+}
@@ -0,0 +1,9 @@
+package com.github.litttlefisher.swagger.docgen.fixture.spring;
+
+/**
+ * 数据冲突，由{@link GlobalExceptionHandler}处理
+ *
+ * @author littlefisher
+ */
+public class ConflictException extends RuntimeException {
+}
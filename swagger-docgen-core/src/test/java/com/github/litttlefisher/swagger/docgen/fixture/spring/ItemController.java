@@ -0,0 +1,57 @@
+package com.github.litttlefisher.swagger.docgen.fixture.spring;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.github.litttlefisher.swagger.docgen.fixture.model.Item;
+import com.github.litttlefisher.swagger.docgen.fixture.model.Result;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiImplicitParam;
+import io.swagger.annotations.ApiImplicitParams;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import io.swagger.annotations.ResponseHeader;
+
+/**
+ * 商品接口
+ *
+ * @author littlefisher
+ */
+@RestController
+@RequestMapping("/items")
+@Api(tags = "items", description = "商品")
+public class ItemController {
+
+    @ApiOperation(value = "查询商品", responseHeaders = @ResponseHeader(name = "X-Rate", response = Integer.class))
+    @ApiResponses({@ApiResponse(code = 400, message = "参数错误", response = Result.class),
+        @ApiResponse(code = 201, message = "已创建", response = Item.class, responseContainer = "List")})
+    @RequestMapping(value = "/{id}", method = RequestMethod.GET)
+    public Result<Item> get(@PathVariable("id") long id,
+        @RequestHeader(value = "X-Trace", required = false) String trace) throws ItemNotFoundException {
+        return null;
+    }
+
+    @ApiImplicitParams(@ApiImplicitParam(name = "limit", paramType = "query", dataType = "int", defaultValue = "10"))
+    @RequestMapping(method = RequestMethod.GET)
+    public List<Item> list(@ModelAttribute ItemQuery query) {
+        return null;
+    }
+
+    @ResponseStatus(HttpStatus.CREATED)
+    @RequestMapping(method = RequestMethod.POST)
+    public Item add(@RequestBody @ApiParam(required = true) Item item) {
+        return null;
+    }
+}
@@ -0,0 +1,13 @@
+package com.github.litttlefisher.swagger.docgen.fixture.spring;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 商品不存在
+ *
+ * @author littlefisher
+ */
+@ResponseStatus(value = HttpStatus.NOT_FOUND, reason = "商品不存在")
+public class ItemNotFoundException extends Exception {
+}
@@ -0,0 +1,16 @@
+package com.github.litttlefisher.swagger.docgen.fixture.spring;
+
+import lombok.Data;
+
+/**
+ * 商品查询条件
+ *
+ * @author littlefisher
+ */
+@Data
+public class ItemQuery {
+
+    private String name;
+
+    private Integer minPrice;
+}
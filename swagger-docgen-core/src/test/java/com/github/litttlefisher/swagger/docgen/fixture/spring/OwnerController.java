@@ -0,0 +1,35 @@
+package com.github.litttlefisher.swagger.docgen.fixture.spring;
+
+import java.util.List;
+
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.github.litttlefisher.swagger.docgen.fixture.model.Owner;
+import com.github.litttlefisher.swagger.docgen.fixture.model.Pet;
+
+import io.swagger.annotations.Api;
+
+/**
+ * 主人接口
+ *
+ * @author littlefisher
+ */
+@RestController
+@RequestMapping("/pets")
+@Api(tags = {"shared", "owners"})
+public class OwnerController {
+
+    @RequestMapping(value = "/shared", method = RequestMethod.POST)
+    public Pet share(@RequestBody Pet pet) {
+        return null;
+    }
+
+    @RequestMapping(value = "/owners/{id}", method = {RequestMethod.GET, RequestMethod.DELETE})
+    public List<Owner> owners(@PathVariable("id") String id) {
+        return null;
+    }
+}
@@ -0,0 +1,36 @@
+package com.github.litttlefisher.swagger.docgen.fixture.spring;
+
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.github.litttlefisher.swagger.docgen.fixture.model.Owner;
+import com.github.litttlefisher.swagger.docgen.fixture.model.Pet;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+
+/**
+ * 宠物接口，与{@link OwnerController}使用相同的请求路径前缀，并声明了相同的路径和tag
+ *
+ * @author littlefisher
+ */
+@RestController
+@RequestMapping("/pets")
+@Api(tags = {"pets", "shared"})
+public class PetController {
+
+    @ApiOperation("查询宠物")
+    @RequestMapping(value = "/{id}", method = RequestMethod.GET)
+    public Pet get(@PathVariable("id") long id, @RequestParam(value = "fields", required = false) String fields) {
+        return null;
+    }
+
+    @RequestMapping(value = "/shared", method = RequestMethod.POST)
+    public Owner share(@RequestBody Owner owner) {
+        return null;
+    }
+}
@@ -0,0 +1,166 @@
+package com.github.litttlefisher.swagger.docgen.reader;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.github.litttlefisher.swagger.docgen.fixture.model.Label;
+import com.github.litttlefisher.swagger.docgen.fixture.model.Pet;
+
+import io.swagger.annotations.ApiModelProperty;
+import io.swagger.converter.ModelConverter;
+import io.swagger.converter.ModelConverterContext;
+import io.swagger.converter.ModelConverterContextImpl;
+import io.swagger.converter.ModelConverters;
+import io.swagger.jackson.ModelResolver;
+import io.swagger.models.Model;
+import io.swagger.models.ModelImpl;
+import io.swagger.models.properties.Property;
+import io.swagger.models.properties.RefProperty;
+import io.swagger.util.Json;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+
+/**
+ * {@link CachingModelConverter}的测试，使用缓存解析的结果需要与不使用缓存串行解析的结果一致
+ *
+ * @author littlefisher
+ */
+public class CachingModelConverterTest {
+
+    private static final String LABEL = "Label";
+
+    private CachingModelConverter modelCache;
+
+    /** 带注解的property，注解会改变{@link AnnotationSensitiveConverter}解析出的model */
+    @ApiModelProperty("带注解的标签")
+    private Label annotatedLabel;
+
+    @BeforeMethod
+    public void registerModelCache() {
+        modelCache = new CachingModelConverter();
+        ModelConverters.getInstance().addConverter(modelCache);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void removeModelCache() {
+        ModelConverters.getInstance().removeConverter(modelCache);
+    }
+
+    @DataProvider
+    public Object[][] readerThreads() {
+        return new Object[][] {{1}, {4}};
+    }
+
+    /**
+     * 第一次解析时缓存为空，第二次解析全部命中缓存
+     */
+    @Test(dataProvider = "readerThreads")
+    public void testSpringMvcCachedReadEqualsUncachedRead(int readerThreads) throws IOException {
+        String expected = SpringMvcApiReaderTest.expectedSwagger();
+        assertEquals(SpringMvcApiReaderTest.read(readerThreads), expected);
+        assertEquals(SpringMvcApiReaderTest.read(readerThreads), expected);
+    }
+
+    @Test(dataProvider = "readerThreads")
+    public void testJaxrsCachedReadEqualsUncachedRead(int readerThreads) throws IOException {
+        String expected = JaxrsReaderTest.expectedSwagger();
+        assertEquals(JaxrsReaderTest.read(JaxrsReaderTest.RESOURCES, readerThreads), expected);
+        assertEquals(JaxrsReaderTest.read(JaxrsReaderTest.RESOURCES, readerThreads), expected);
+    }
+
+    /**
+     * 缓存中的model被不同的reader共享，Spring与JAX-RS的解析结果互不影响
+     */
+    @Test
+    public void testCacheSharedBetweenReaders() throws IOException {
+        assertEquals(JaxrsReaderTest.read(JaxrsReaderTest.RESOURCES, 4), JaxrsReaderTest.expectedSwagger());
+        assertEquals(SpringMvcApiReaderTest.read(4), SpringMvcApiReaderTest.expectedSwagger());
+        assertEquals(JaxrsReaderTest.read(JaxrsReaderTest.RESOURCES, 1), JaxrsReaderTest.expectedSwagger());
+    }
+
+    /**
+     * 带注解的property解析中触发的model解析不使用缓存，其结果也不会进入缓存
+     */
+    @Test
+    public void testAnnotatedPropertyBypassesCache() throws NoSuchFieldException {
+        AnnotationSensitiveConverter converter = new AnnotationSensitiveConverter();
+        assertEquals(context(converter).resolve(Label.class).getDescription(), "标签");
+
+        ModelConverterContextImpl annotated = context(converter);
+        annotated.resolveProperty(Label.class, getClass().getDeclaredField("annotatedLabel").getAnnotations());
+        assertEquals(annotated.getDefinedModels().get(LABEL).getDescription(), "带注解的标签");
+
+        assertEquals(context(converter).resolve(Label.class).getDescription(), "标签");
+    }
+
+    /**
+     * 修改解析返回的model不会影响缓存，每次命中缓存都返回新的副本，且model与注册的定义仍是同一个实例
+     */
+    @Test
+    public void testCachedModelsAreCopies() {
+        ModelResolver resolver = new ModelResolver(Json.mapper());
+        ModelConverterContextImpl first = context(resolver);
+        Model pet = first.resolve(Pet.class);
+        assertSame(first.getDefinedModels().get(Pet.class.getSimpleName()), pet);
+        String expected = Json.pretty(first.getDefinedModels());
+        pet.setDescription("修改后的描述");
+        pet.getProperties().remove("name");
+        first.getDefinedModels().get(LABEL).setDescription("修改后的描述");
+
+        for (int i = 0; i < 2; i++) {
+            ModelConverterContextImpl cached = context(resolver);
+            Model cachedPet = cached.resolve(Pet.class);
+            assertNotSame(cachedPet, pet);
+            assertSame(cached.getDefinedModels().get(Pet.class.getSimpleName()), cachedPet);
+            assertEquals(Json.pretty(cached.getDefinedModels()), expected);
+            cachedPet.setDescription("修改后的描述");
+            cachedPet.getProperties().remove("age");
+        }
+    }
+
+    /**
+     * 以模型缓存为第一个转换器的解析上下文
+     */
+    private ModelConverterContextImpl context(ModelConverter converter) {
+        return new ModelConverterContextImpl(Arrays.asList(modelCache, converter));
+    }
+
+    /**
+     * 根据property上的{@link ApiModelProperty}注解为{@link Label}生成不同描述的转换器
+     */
+    private static class AnnotationSensitiveConverter implements ModelConverter {
+
+        private final ThreadLocal<String> description = new ThreadLocal<>();
+
+        @Override
+        public Property resolveProperty(Type type, ModelConverterContext context, Annotation[] annotations,
+            Iterator<ModelConverter> chain) {
+            Arrays.stream(annotations).filter(ApiModelProperty.class::isInstance).findFirst().ifPresent(
+                annotation -> description.set(((ApiModelProperty) annotation).value()));
+            try {
+                context.resolve(type);
+                return new RefProperty(LABEL);
+            } finally {
+                description.remove();
+            }
+        }
+
+        @Override
+        public Model resolve(Type type, ModelConverterContext context, Iterator<ModelConverter> chain) {
+            ModelImpl model = new ModelImpl().name(LABEL).description(
+                description.get() == null ? "标签" : description.get());
+            context.defineModel(LABEL, model);
+            return model;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.github.litttlefisher.swagger.docgen.reader;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.github.litttlefisher.swagger.docgen.fixture.model.Color;
+import com.github.litttlefisher.swagger.docgen.fixture.model.Pet;
+import com.github.litttlefisher.swagger.docgen.fixture.spring.ColorController;
+import com.github.litttlefisher.swagger.docgen.fixture.spring.OwnerController;
+import com.github.litttlefisher.swagger.docgen.fixture.spring.PetController;
+
+import io.swagger.converter.ModelConverters;
+import io.swagger.models.Swagger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * {@link IncrementalBuildState}的测试，增量解析的结果需要与完整解析的结果一致，
+ * 类发生变化时只重新解析依赖它的Controller
+ *
+ * @author littlefisher
+ */
+public class IncrementalBuildStateTest {
+
+    /** 解析配置的指纹 */
+    private static final String FINGERPRINT = "fingerprint";
+
+    private File directory;
+
+    private File stateFile;
+
+    private FixtureClassLoader classLoader;
+
+    private Set<Class<?>> controllers;
+
+    /**
+     * 解析线程数，以及是否与{@link com.github.litttlefisher.swagger.docgen.document.AbstractDocumentSource}一样使用model缓存
+     */
+    @DataProvider
+    public Object[][] readOptions() {
+        return new Object[][] {{1, false}, {4, false}, {1, true}, {4, true}};
+    }
+
+    @BeforeMethod
+    public void setUp() throws IOException, ClassNotFoundException {
+        directory = Files.createTempDirectory("incremental-build-state").toFile();
+        stateFile = new File(directory, "build-state.json");
+        classLoader = new FixtureClassLoader();
+        controllers = new LinkedHashSet<>();
+        for (Class<?> controller : SpringMvcApiReaderTest.CONTROLLERS) {
+            controllers.add(classLoader.loadClass(controller.getName()));
+        }
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Test(dataProvider = "readOptions")
+    public void testIncrementalReadEqualsFullRead(int readerThreads, boolean modelCache) throws IOException {
+        String expected = SpringMvcApiReaderTest.expectedSwagger();
+
+        IncrementalBuildState coldState = new IncrementalBuildState(stateFile, FINGERPRINT);
+        assertEquals(read(coldState, readerThreads, modelCache), expected);
+        assertEquals(coldState.getReusedClasses(), Collections.emptySet());
+        assertTrue(stateFile.isFile());
+
+        // Item中价格的最小值1.50从json还原后会变为1.5，ItemController每次都重新解析
+        IncrementalBuildState warmState = new IncrementalBuildState(stateFile, FINGERPRINT);
+        assertEquals(read(warmState, readerThreads, modelCache), expected);
+        assertEquals(warmState.getReusedClasses(), names(PetController.class, OwnerController.class,
+            ColorController.class));
+    }
+
+    @Test(dataProvider = "readOptions")
+    public void testChangedModelInvalidatesDependentControllers(int readerThreads, boolean modelCache) throws IOException {
+        String expected = SpringMvcApiReaderTest.expectedSwagger();
+        read(new IncrementalBuildState(stateFile, FINGERPRINT), readerThreads, modelCache);
+
+        // Pet被PetController和OwnerController引用
+        classLoader.change(Pet.class);
+        IncrementalBuildState state = new IncrementalBuildState(stateFile, FINGERPRINT);
+        assertEquals(read(state, readerThreads, modelCache), expected);
+        assertEquals(state.getReusedClasses(), names(ColorController.class));
+
+        // Color被ColorController引用
+        classLoader.change(Color.class);
+        state = new IncrementalBuildState(stateFile, FINGERPRINT);
+        assertEquals(read(state, readerThreads, modelCache), expected);
+        assertEquals(state.getReusedClasses(), names(PetController.class, OwnerController.class));
+    }
+
+    @Test
+    public void testChangedFingerprintInvalidatesAllControllers() throws IOException {
+        read(new IncrementalBuildState(stateFile, FINGERPRINT), 1, false);
+
+        IncrementalBuildState state = new IncrementalBuildState(stateFile, FINGERPRINT + "-changed");
+        assertEquals(read(state, 1, false), SpringMvcApiReaderTest.expectedSwagger());
+        assertEquals(state.getReusedClasses(), Collections.emptySet());
+    }
+
+    private String read(IncrementalBuildState state, int readerThreads, boolean modelCache) {
+        SpringMvcApiReader reader = new SpringMvcApiReader(new Swagger());
+        reader.setReaderThreads(readerThreads);
+        reader.setBuildState(state);
+        CachingModelConverter modelConverter = modelCache ? new CachingModelConverter() : null;
+        if (modelConverter != null) {
+            ModelConverters.getInstance().addConverter(modelConverter);
+        }
+        try {
+            return SpringMvcApiReaderTest.toJson(reader.read(controllers));
+        } finally {
+            if (modelConverter != null) {
+                ModelConverters.getInstance().removeConverter(modelConverter);
+            }
+        }
+    }
+
+    private static Set<String> names(Class<?>... classes) {
+        Set<String> names = new TreeSet<>();
+        Arrays.stream(classes).forEach(cls -> names.add(cls.getName()));
+        return names;
+    }
+
+    /**
+     * 优先自行加载fixture中的类，通过在class文件末尾追加内容模拟类发生变化
+     */
+    private static final class FixtureClassLoader extends URLClassLoader {
+
+        private static final String FIXTURE_PACKAGE = "com.github.litttlefisher.swagger.docgen.fixture.";
+
+        /** 发生变化的class文件 */
+        private final Set<String> changedResources = Collections.synchronizedSet(new HashSet<>());
+
+        private FixtureClassLoader() {
+            super(new URL[] {IncrementalBuildStateTest.class.getProtectionDomain().getCodeSource().getLocation()},
+                IncrementalBuildStateTest.class.getClassLoader());
+        }
+
+        void change(Class<?> cls) {
+            changedResources.add(cls.getName().replace('.', '/') + ".class");
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.startsWith(FIXTURE_PACKAGE)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> cls = findLoadedClass(name);
+                if (cls == null) {
+                    cls = findClass(name);
+                }
+                if (resolve) {
+                    resolveClass(cls);
+                }
+                return cls;
+            }
+        }
+
+        @Override
+        public InputStream getResourceAsStream(String name) {
+            InputStream in = super.getResourceAsStream(name);
+            if (in == null || !changedResources.contains(name)) {
+                return in;
+            }
+            return new SequenceInputStream(in, new ByteArrayInputStream(new byte[] {0}));
+        }
+    }
+}
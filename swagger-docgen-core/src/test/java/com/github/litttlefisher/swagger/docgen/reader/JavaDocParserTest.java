@@ -0,0 +1,160 @@
+package com.github.litttlefisher.swagger.docgen.reader;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * {@link JavaDocParser}的测试
+ *
+ * @author littlefisher
+ */
+public class JavaDocParserTest {
+
+    @Test
+    public void testParseDeclarations() {
+        Map<String, ClassJavaDoc> docs = parse(
+            "package com.example;\n"
+                + "import java.util.List;\n"
+                + "/**\n * 用户接口\n * @author someone\n */\n"
+                + "public class UserController {\n"
+                + "    /** 用户名 */\n"
+                + "    private String name = \"a,b\";\n"
+                + "    /** 年龄 */\n"
+                + "    private int age, height;\n"
+                + "    /**\n     * 保存用户\n     * @param user 用户\n     */\n"
+                + "    public void save(@RequestBody final User user) { if (true) { } }\n"
+                + "    /** 批量保存 */\n"
+                + "    public void save(List<User> users, String... tags) { }\n"
+                + "    /** 内部类 */\n"
+                + "    public static class Inner { }\n"
+                + "}\n");
+
+        ClassJavaDoc controller = docs.get("com.example.UserController");
+        assertEquals(controller.getComment(), "用户接口");
+        assertEquals(controller.getFieldComments().get("name"), "用户名");
+        assertEquals(controller.getFieldComments().get("age"), "年龄");
+        assertEquals(controller.getFieldComments().get("height"), "年龄");
+        assertEquals(controller.getMethodComments().get("save(User)"), "保存用户");
+        assertEquals(controller.getMethodComments().get("save(List,String[])"), "批量保存");
+        assertEquals(docs.get("com.example.UserController.Inner").getComment(), "内部类");
+    }
+
+    @Test
+    public void testPlainCommentsKeepJavaDoc() {
+        ClassJavaDoc doc = parse(
+            "class A {\n"
+                + "    /** 行注释之前的javadoc */\n"
+                + "    // 行注释\n"
+                + "    public void lineComment() { }\n"
+                + "    /** 块注释之前的javadoc */\n"
+                + "    /* 块注释 */\n"
+                + "    public void blockComment() { }\n"
+                + "    /** 第一个javadoc */\n"
+                + "    /** 第二个javadoc */\n"
+                + "    public void twoJavaDocs() { }\n"
+                + "    /**/\n"
+                + "    public void emptyComment() { }\n"
+                + "}\n").get("A");
+
+        assertEquals(doc.getMethodComments().get("lineComment()"), "行注释之前的javadoc");
+        assertEquals(doc.getMethodComments().get("blockComment()"), "块注释之前的javadoc");
+        assertEquals(doc.getMethodComments().get("twoJavaDocs()"), "第二个javadoc");
+        assertEquals(doc.getMethodComments().get("emptyComment()"), "");
+    }
+
+    @Test
+    public void testLiteralsContainingComments() {
+        ClassJavaDoc doc = parse(
+            "class A {\n"
+                + "    private String s = \"/** 字符串中的注释 */ {\";\n"
+                + "    private char c = '\"';\n"
+                + "    private char quote = '\\'';\n"
+                + "    private String escaped = \"\\\"/** 转义后的注释 */\";\n"
+                + "    private String block = \"\"\"\n"
+                + "        \" \"\" { /** 文本块中的注释 */\n"
+                + "        \\\"\"\"\n"
+                + "        \"\"\";\n"
+                + "    public void undocumented() { }\n"
+                + "    /** 有注释的方法 */\n"
+                + "    public void documented() { }\n"
+                + "}\n").get("A");
+
+        assertEquals(new ArrayList<>(doc.getFieldComments().keySet()),
+            Arrays.asList("s", "c", "quote", "escaped", "block"));
+        assertTrue(doc.getFieldComments().values().stream().allMatch(String::isEmpty));
+        assertEquals(doc.getMethodComments().get("undocumented()"), "");
+        assertEquals(doc.getMethodComments().get("documented()"), "有注释的方法");
+    }
+
+    @Test
+    public void testEnumConstantsAreNotFields() {
+        ClassJavaDoc doc = parse(
+            "enum Color {\n"
+                + "    /** 红色 */\n"
+                + "    @Deprecated RED(\"r\") { },\n"
+                + "    /** 绿色 */\n"
+                + "    GREEN(\"g\");\n"
+                + "    /** 编码 */\n"
+                + "    private final String code;\n"
+                + "    Color(String code) { this.code = code; }\n"
+                + "    /** 获取编码 */\n"
+                + "    public String getCode() { return code; }\n"
+                + "}\n").get("Color");
+
+        assertFalse(doc.getFieldComments().containsKey("RED"));
+        assertFalse(doc.getFieldComments().containsKey("GREEN"));
+        assertEquals(doc.getFieldComments().get("code"), "编码");
+        assertEquals(doc.getMethodComments().get("getCode()"), "获取编码");
+    }
+
+    @Test
+    public void testMethodNameFallbackOnlyForSingleMethod() throws NoSuchMethodException {
+        ClassJavaDoc doc = parse(
+            "class Overloads<T> {\n"
+                + "    /** 保存 */\n"
+                + "    void save(T t) { }\n"
+                + "    void save(String s) { }\n"
+                + "    /** 更新 */\n"
+                + "    void update(T t) { }\n"
+                + "    void remove(T t) { }\n"
+                + "}\n").get("Overloads");
+
+        // 泛型参数擦除后为Object，方法签名匹配不上
+        assertNull(doc.getMethodComment(Overloads.class.getDeclaredMethod("save", Object.class)));
+        assertEquals(doc.getMethodComment(Overloads.class.getDeclaredMethod("save", String.class)), "");
+        assertEquals(doc.getMethodComment(Overloads.class.getDeclaredMethod("update", Object.class)), "更新");
+        assertNull(doc.getMethodComment(Overloads.class.getDeclaredMethod("remove", Object.class)));
+    }
+
+    private static Map<String, ClassJavaDoc> parse(String source) {
+        List<ClassJavaDoc> docs = JavaDocParser.parse(source);
+        return docs.stream().collect(Collectors.toMap(ClassJavaDoc::getQualifiedName, Function.identity()));
+    }
+
+    @SuppressWarnings("unused")
+    private static class Overloads<T> {
+
+        void save(T t) {
+        }
+
+        void save(String s) {
+        }
+
+        void update(T t) {
+        }
+
+        void remove(T t) {
+        }
+    }
+}
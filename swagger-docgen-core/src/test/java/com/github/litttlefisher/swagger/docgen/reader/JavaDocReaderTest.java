@@ -0,0 +1,88 @@
+package com.github.litttlefisher.swagger.docgen.reader;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.github.litttlefisher.swagger.docgen.fixture.model.Label;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+
+/**
+ * {@link JavaDocReader}的测试，source jar包中的java文件需要按配置的源文件字符集读取
+ *
+ * @author littlefisher
+ */
+public class JavaDocReaderTest {
+
+    private static final String LABEL_SOURCE = "package com.github.litttlefisher.swagger.docgen.fixture.model;\n"
+        + "/** 标签说明 */\n"
+        + "public class Label {\n"
+        + "    /** 标签的值 */\n"
+        + "    private String value;\n"
+        + "}\n";
+
+    private File directory;
+
+    /** classpath中的jar包，只需要路径，不需要真实存在 */
+    private File jar;
+
+    @BeforeMethod
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("javadoc-reader").toFile();
+        jar = new File(directory, "fixture-1.0.jar");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Test
+    public void testSourceEncoding() throws IOException {
+        writeSourceJar(Charset.forName("GBK"));
+        ClassJavaDoc classJavaDoc = new JavaDocReader(Collections.singletonList(jar), "GBK").getClassJavaDoc(
+            Label.class);
+        assertEquals(classJavaDoc.getComment(), "标签说明");
+        assertEquals(classJavaDoc.getFieldComments().get("value"), "标签的值");
+
+        // 按UTF-8读取GBK编码的源文件会得到乱码
+        assertNotEquals(new JavaDocReader(Collections.singletonList(jar), null).getClassJavaDoc(Label.class)
+            .getComment(), "标签说明");
+    }
+
+    @Test
+    public void testDefaultSourceEncoding() throws IOException {
+        writeSourceJar(StandardCharsets.UTF_8);
+        assertEquals(new JavaDocReader(Collections.singletonList(jar), null).getClassJavaDoc(Label.class)
+            .getComment(), "标签说明");
+        assertEquals(new JavaDocReader(Collections.singletonList(jar), "").getClassJavaDoc(Label.class)
+            .getComment(), "标签说明");
+    }
+
+    /**
+     * 生成classpath中jar包对应的source jar包，其中只有{@link Label}的java文件
+     *
+     * @param charset java文件的字符集
+     */
+    private void writeSourceJar(Charset charset) throws IOException {
+        File sourceJar = new File(directory, "fixture-1.0-" + JavaDocReader.SOURCE_JAR_SUFFIX);
+        try (JarOutputStream outputStream = new JarOutputStream(new FileOutputStream(sourceJar))) {
+            outputStream.putNextEntry(new JarEntry(Label.class.getName().replace('.', '/') + ".java"));
+            outputStream.write(LABEL_SOURCE.getBytes(charset));
+            outputStream.closeEntry();
+        }
+    }
+}
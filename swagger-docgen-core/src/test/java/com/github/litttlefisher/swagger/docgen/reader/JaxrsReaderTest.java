@@ -0,0 +1,100 @@
+package com.github.litttlefisher.swagger.docgen.reader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.apache.commons.io.IOUtils;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.github.litttlefisher.swagger.docgen.exception.GenerateException;
+import com.github.litttlefisher.swagger.docgen.fixture.jaxrs.CommonParameters;
+import com.github.litttlefisher.swagger.docgen.fixture.jaxrs.DuplicateCommonParameters;
+import com.github.litttlefisher.swagger.docgen.fixture.jaxrs.ItemResource;
+import com.github.litttlefisher.swagger.docgen.fixture.jaxrs.OwnerResource;
+import com.github.litttlefisher.swagger.docgen.fixture.jaxrs.PetResource;
+
+import io.swagger.models.Swagger;
+import io.swagger.models.parameters.RefParameter;
+import io.swagger.util.Json;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * {@link JaxrsReader}的测试，并行解析的结果需要与串行解析的结果一致
+ * <p>
+ * 期望结果为优化前的reader串行解析fixture得到的swagger
+ *
+ * @author littlefisher
+ */
+public class JaxrsReaderTest {
+
+    /** 期望的解析结果 */
+    private static final String EXPECTED_SWAGGER = "/fixture/jaxrs-swagger.json";
+
+    /** 并行解析的重复次数，用于暴露合并顺序不稳定的问题 */
+    private static final int REPEAT_TIMES = 10;
+
+    /** 公共参数需要在引用它的资源类之前解析 */
+    static final Set<Class<?>> RESOURCES = new LinkedHashSet<>(Arrays.asList(CommonParameters.class,
+        PetResource.class, OwnerResource.class, ItemResource.class));
+
+    @DataProvider
+    public Object[][] readerThreads() {
+        return new Object[][] {{1}, {4}};
+    }
+
+    @Test
+    public void testSerialRead() throws IOException {
+        assertEquals(read(RESOURCES, 1), expectedSwagger());
+    }
+
+    @Test
+    public void testParallelReadEqualsSerialRead() throws IOException {
+        String expected = expectedSwagger();
+        for (int i = 0; i < REPEAT_TIMES; i++) {
+            assertEquals(read(RESOURCES, 4), expected);
+        }
+    }
+
+    /**
+     * 串行解析时公共参数只对之后的类生效，在公共参数之前的类中同名参数不解析为引用
+     */
+    @Test
+    public void testParallelReadKeepsCommonParameterOrder() {
+        Set<Class<?>> resources = new LinkedHashSet<>(Arrays.asList(PetResource.class, CommonParameters.class,
+            OwnerResource.class, ItemResource.class));
+        Swagger serial = new JaxrsReader(new Swagger()).read(resources);
+        assertFalse(serial.getPath("/pets/{id}").getGet().getParameters().get(1) instanceof RefParameter);
+        assertTrue(serial.getPath("/pets/{id}/owner").getGet().getParameters().get(0) instanceof RefParameter);
+        String expected = Json.pretty(serial);
+        for (int i = 0; i < REPEAT_TIMES; i++) {
+            assertEquals(read(resources, 4), expected);
+        }
+    }
+
+    @Test(dataProvider = "readerThreads", expectedExceptions = GenerateException.class,
+        expectedExceptionsMessageRegExp = ".*Redefining common parameter 'X-Tenant'.*")
+    public void testRedefiningCommonParameterFails(int readerThreads) {
+        read(new LinkedHashSet<>(Arrays.asList(CommonParameters.class, DuplicateCommonParameters.class,
+            PetResource.class)), readerThreads);
+    }
+
+    static String read(Set<Class<?>> resources, int readerThreads) {
+        JaxrsReader reader = new JaxrsReader(new Swagger());
+        reader.setReaderThreads(readerThreads);
+        return Json.pretty(reader.read(resources));
+    }
+
+    static String expectedSwagger() throws IOException {
+        try (InputStream in = JaxrsReaderTest.class.getResourceAsStream(EXPECTED_SWAGGER)) {
+            return IOUtils.toString(in, StandardCharsets.UTF_8.name()).trim();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.github.litttlefisher.swagger.docgen.reader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.apache.commons.io.IOUtils;
+import org.testng.annotations.Test;
+
+import com.github.litttlefisher.swagger.docgen.fixture.spring.ColorController;
+import com.github.litttlefisher.swagger.docgen.fixture.spring.GlobalExceptionHandler;
+import com.github.litttlefisher.swagger.docgen.fixture.spring.ItemController;
+import com.github.litttlefisher.swagger.docgen.fixture.spring.OwnerController;
+import com.github.litttlefisher.swagger.docgen.fixture.spring.PetController;
+
+import io.swagger.models.Operation;
+import io.swagger.models.Path;
+import io.swagger.models.Response;
+import io.swagger.models.Swagger;
+import io.swagger.models.properties.Property;
+import io.swagger.util.Json;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * {@link SpringMvcApiReader}的测试，各种解析方式的结果都需要与串行解析的结果一致
+ * <p>
+ * 期望结果为优化前的reader串行解析fixture得到的swagger
+ *
+ * @author littlefisher
+ */
+public class SpringMvcApiReaderTest {
+
+    /** 期望的解析结果 */
+    private static final String EXPECTED_SWAGGER = "/fixture/spring-swagger.json";
+
+    /** 并行解析的重复次数，用于暴露合并顺序不稳定的问题 */
+    private static final int REPEAT_TIMES = 10;
+
+    static final Set<Class<?>> CONTROLLERS = new LinkedHashSet<>(Arrays.asList(PetController.class,
+        OwnerController.class, ItemController.class, ColorController.class, GlobalExceptionHandler.class));
+
+    @Test
+    public void testSerialRead() throws IOException {
+        assertEquals(read(1), expectedSwagger());
+    }
+
+    @Test
+    public void testParallelReadEqualsSerialRead() throws IOException {
+        String expected = expectedSwagger();
+        for (int i = 0; i < REPEAT_TIMES; i++) {
+            assertEquals(read(4), expected);
+        }
+    }
+
+    /**
+     * 同一类型的返回值缓存后，各个response中的schema仍然需要是独立的实例，修改其中一个不能影响其他response
+     */
+    @Test
+    public void testResponseSchemasAreNotShared() throws IOException {
+        Swagger swagger = new SpringMvcApiReader(new Swagger()).read(CONTROLLERS);
+        Set<Property> schemas = Collections.newSetFromMap(new IdentityHashMap<>());
+        int count = 0;
+        for (Path path : swagger.getPaths().values()) {
+            for (Operation operation : path.getOperations()) {
+                for (Response response : operation.getResponses().values()) {
+                    if (response.getSchema() != null) {
+                        count++;
+                        schemas.add(response.getSchema());
+                    }
+                }
+            }
+        }
+        assertTrue(count > 1);
+        assertEquals(schemas.size(), count);
+
+        swagger.getPath("/pets/{id}").getGet().getResponses().get("200").getSchema().setDescription("changed");
+        assertEquals(toJson(new SpringMvcApiReader(new Swagger()).read(CONTROLLERS)), expectedSwagger());
+        assertNull(swagger.getPath("/pets/shared").getPost().getResponses().get("200").getSchema().getDescription());
+    }
+
+    static String read(int readerThreads) {
+        SpringMvcApiReader reader = new SpringMvcApiReader(new Swagger());
+        reader.setReaderThreads(readerThreads);
+        return toJson(reader.read(CONTROLLERS));
+    }
+
+    static String toJson(Swagger swagger) {
+        return Json.pretty(swagger);
+    }
+
+    static String expectedSwagger() throws IOException {
+        try (InputStream in = SpringMvcApiReaderTest.class.getResourceAsStream(EXPECTED_SWAGGER)) {
+            return IOUtils.toString(in, StandardCharsets.UTF_8.name()).trim();
+        }
+    }
+}
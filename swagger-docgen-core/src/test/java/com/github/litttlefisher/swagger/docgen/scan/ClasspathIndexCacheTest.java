@@ -0,0 +1,274 @@
+package com.github.litttlefisher.swagger.docgen.scan;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.io.FileUtils;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.reflections.util.ClasspathHelper;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.litttlefisher.swagger.docgen.fixture.scan.LateMarked;
+import com.github.litttlefisher.swagger.docgen.fixture.scan.MarkedBase;
+import com.github.litttlefisher.swagger.docgen.fixture.scan.Marker;
+import com.github.litttlefisher.swagger.docgen.fixture.scan.MetaMarked;
+import com.github.litttlefisher.swagger.docgen.fixture.scan.Unmarked;
+import com.github.litttlefisher.swagger.docgen.fixture.scanother.PrefixMarked;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * {@link ClasspathIndexCache}的测试，jar包或class目录发生变化后缓存需要失效，失效后重新扫描的结果需要反映变化
+ *
+ * @author littlefisher
+ */
+public class ClasspathIndexCacheTest {
+
+    private static final String SCAN_PACKAGE = "com.github.litttlefisher.swagger.docgen.fixture.scan";
+
+    /** 修改前的文件修改时间，用于模拟文件被改写 */
+    private static final long OLD_LAST_MODIFIED = 1000000000000L;
+
+    /** 不包括{@link LateMarked}时，查询{@link Marker}（不考虑@Inherited）的结果 */
+    private static final List<String> MARKED = Arrays.asList(SCAN_PACKAGE + ".MarkedBase",
+        SCAN_PACKAGE + ".MarkedChild", SCAN_PACKAGE + ".MarkedGrandChild", SCAN_PACKAGE + ".MarkedInterface",
+        SCAN_PACKAGE + ".MarkedInterfaceImpl", SCAN_PACKAGE + ".MetaMarked", SCAN_PACKAGE + ".MetaMarker",
+        SCAN_PACKAGE + ".sub.SubPackageMarked");
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private File directory;
+
+    /** 只包含fixture.scan及fixture.scanother两个包的class目录，不包括{@link LateMarked} */
+    private File classesDirectory;
+
+    private File cacheDirectory;
+
+    /** 测试类编译输出目录 */
+    private File testClasses;
+
+    @BeforeMethod
+    public void createClasspath() throws IOException, URISyntaxException {
+        directory = Files.createTempDirectory("classpath-index-cache").toFile();
+        classesDirectory = new File(directory, "classes");
+        cacheDirectory = new File(directory, "cache");
+        testClasses = new File(MarkedBase.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        for (Class<?> fixture : Arrays.asList(MarkedBase.class, PrefixMarked.class)) {
+            String packagePath = ClassFileScanner.toPackagePath(fixture.getPackage().getName());
+            FileUtils.copyDirectory(new File(testClasses, packagePath), new File(classesDirectory, packagePath),
+                file -> !file.getName().startsWith(LateMarked.class.getSimpleName()));
+        }
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Test
+    public void testDirectoryCacheInvalidation() throws IOException {
+        URL url = classesDirectory.toURI().toURL();
+        assertEquals(query(url), new TreeSet<>(MARKED));
+        assertNotNull(getCached(url));
+        assertEquals(query(url), new TreeSet<>(MARKED));
+
+        // 新增class文件
+        copyLateMarked();
+        assertNull(getCached(url));
+        Set<String> withLateMarked = new TreeSet<>(MARKED);
+        withLateMarked.add(LateMarked.class.getName());
+        assertEquals(query(url), withLateMarked);
+        assertNotNull(getCached(url));
+
+        // 修改class文件，给原先没有注解的类加上注解
+        File unmarked = new File(classFile(classesDirectory, Unmarked.class));
+        Files.write(unmarked.toPath(), addMarker(Files.readAllBytes(unmarked.toPath())));
+        assertNull(getCached(url));
+        withLateMarked.add(Unmarked.class.getName());
+        assertEquals(query(url), withLateMarked);
+
+        // 删除class文件，缓存没有失效时会加载不存在的类而失败
+        assertTrue(new File(classFile(classesDirectory, MetaMarked.class)).delete());
+        assertNull(getCached(url));
+        withLateMarked.remove(MetaMarked.class.getName());
+        assertEquals(query(url), withLateMarked);
+    }
+
+    @Test
+    public void testJarCacheInvalidation() throws IOException {
+        File jar = new File(directory, "fixture.jar");
+        writeJar(jar);
+        URL url = jar.toURI().toURL();
+        assertEquals(query(url), new TreeSet<>(MARKED));
+        assertNotNull(getCached(url));
+
+        copyLateMarked();
+        writeJar(jar);
+        assertNull(getCached(url));
+        Set<String> withLateMarked = new TreeSet<>(MARKED);
+        withLateMarked.add(LateMarked.class.getName());
+        assertEquals(query(url), withLateMarked);
+        assertNotNull(getCached(url));
+    }
+
+    @Test
+    public void testVersionMismatch() throws IOException {
+        URL url = classesDirectory.toURI().toURL();
+        query(url);
+        assertNotNull(getCached(url));
+
+        File cacheFile = new File(cacheDirectory, ClasspathIndex.CACHE_FILE_NAME);
+        ObjectNode content = (ObjectNode) mapper.readTree(cacheFile);
+        int version = content.get("version").asInt();
+        content.put("version", version - 1);
+        mapper.writeValue(cacheFile, content);
+        assertNull(getCached(url));
+
+        // 旧版本的缓存被忽略，重新扫描后写入当前版本
+        assertEquals(query(url), new TreeSet<>(MARKED));
+        assertNotNull(getCached(url));
+        assertEquals(mapper.readTree(cacheFile).get("version").asInt(), version);
+    }
+
+    @Test
+    public void testFingerprint() throws IOException {
+        URL url = classesDirectory.toURI().toURL();
+        String fingerprint = ClasspathIndexCache.fingerprint(url, SCAN_PACKAGE);
+        assertTrue(fingerprint.startsWith("dir:"));
+        assertEquals(ClasspathIndexCache.fingerprint(url, SCAN_PACKAGE), fingerprint);
+        assertEquals(ClasspathIndexCache.fingerprint(url, SCAN_PACKAGE + ".missing"), "dir:0");
+
+        // 只有包目录下的class文件参与计算
+        FileUtils.write(new File(classesDirectory, ClassFileScanner.toPackagePath(SCAN_PACKAGE) + "readme.txt"),
+            "readme", "UTF-8");
+        assertEquals(ClasspathIndexCache.fingerprint(url, SCAN_PACKAGE), fingerprint);
+        String otherFingerprint = ClasspathIndexCache.fingerprint(url, PrefixMarked.class.getPackage().getName());
+        assertTrue(new File(classFile(classesDirectory, MarkedBase.class)).setLastModified(OLD_LAST_MODIFIED));
+        assertNotEquals(ClasspathIndexCache.fingerprint(url, SCAN_PACKAGE), fingerprint);
+        assertEquals(ClasspathIndexCache.fingerprint(url, PrefixMarked.class.getPackage().getName()),
+            otherFingerprint);
+
+        // jar包条目的url形如jar:file:...!/，指纹与jar包文件本身一致
+        File jar = new File(directory, "fixture.jar");
+        writeJar(jar);
+        URL jarUrl = new URL("jar:" + jar.toURI().toURL() + "!/");
+        String jarFingerprint = ClasspathIndexCache.fingerprint(jarUrl, SCAN_PACKAGE);
+        assertEquals(jarFingerprint, ClasspathIndexCache.fingerprint(jar.toURI().toURL(), SCAN_PACKAGE));
+        assertTrue(jarFingerprint.startsWith("file:"));
+        assertTrue(jar.setLastModified(OLD_LAST_MODIFIED));
+        assertNotEquals(ClasspathIndexCache.fingerprint(jarUrl, SCAN_PACKAGE), jarFingerprint);
+    }
+
+    /**
+     * 使用新的带缓存的索引查询classpath条目中被{@link Marker}标注的类，查询后保存缓存
+     *
+     * @param url classpath条目
+     * @return 类名
+     */
+    private Set<String> query(URL url) throws IOException {
+        ClasspathIndex classpathIndex = new ClasspathIndex(cacheDirectory, 1);
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {url}, null)) {
+            Set<String> classNames = classpathIndex.getTypesAnnotatedWith(Collections.singleton(SCAN_PACKAGE),
+                Marker.class, false, classLoader).stream().map(Class::getName).collect(Collectors.toCollection(
+                TreeSet::new));
+            assertFalse(classNames.contains(PrefixMarked.class.getName()));
+            classpathIndex.saveCache();
+            return classNames;
+        }
+    }
+
+    /**
+     * 读取缓存文件中classpath条目的扫描结果
+     *
+     * @param url classpath条目
+     * @return 条目未变化时返回缓存的扫描结果，否则返回null
+     */
+    private ClasspathEntryIndex getCached(URL url) throws IOException {
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {url}, null)) {
+            URL entryUrl = ClasspathHelper.forPackage(SCAN_PACKAGE, classLoader).iterator().next();
+            ClasspathIndexCache cache = new ClasspathIndexCache(new File(cacheDirectory,
+                ClasspathIndex.CACHE_FILE_NAME));
+            return cache.get(SCAN_PACKAGE + "@" + entryUrl, ClasspathIndexCache.fingerprint(entryUrl, SCAN_PACKAGE));
+        }
+    }
+
+    private void copyLateMarked() throws IOException {
+        FileUtils.copyFile(new File(classFile(testClasses, LateMarked.class)),
+            new File(classFile(classesDirectory, LateMarked.class)));
+    }
+
+    private static String classFile(File root, Class<?> cls) {
+        return new File(root, cls.getName().replace('.', '/') + ".class").getPath();
+    }
+
+    /**
+     * 给class文件加上{@link Marker}注解
+     */
+    private static byte[] addMarker(byte[] classFile) {
+        ClassReader reader = new ClassReader(classFile);
+        ClassWriter writer = new ClassWriter(reader, 0);
+        reader.accept(new ClassVisitor(Opcodes.ASM9, writer) {
+            @Override
+            public void visitEnd() {
+                visitAnnotation(Type.getDescriptor(Marker.class), true).visitEnd();
+                super.visitEnd();
+            }
+        }, 0);
+        return writer.toByteArray();
+    }
+
+    /**
+     * 将class目录打包为jar包，先写临时文件再替换，并修改jar包的修改时间，保证指纹发生变化
+     */
+    private void writeJar(File jar) throws IOException {
+        File tempJar = new File(directory, "fixture.jar.tmp");
+        Path root = classesDirectory.toPath();
+        try (OutputStream outputStream = new FileOutputStream(tempJar);
+            JarOutputStream jarOutputStream = new JarOutputStream(outputStream);
+            Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.filter(path -> !path.equals(root)).sorted().collect(Collectors.toList())) {
+                String name = root.relativize(path).toString().replace(File.separatorChar, '/');
+                if (Files.isDirectory(path)) {
+                    jarOutputStream.putNextEntry(new JarEntry(name + "/"));
+                } else {
+                    jarOutputStream.putNextEntry(new JarEntry(name));
+                    Files.copy(path, jarOutputStream);
+                }
+                jarOutputStream.closeEntry();
+            }
+        }
+        long lastModified = jar.isFile() ? jar.lastModified() : OLD_LAST_MODIFIED;
+        Files.move(tempJar.toPath(), jar.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        assertTrue(jar.setLastModified(lastModified + 2000L));
+    }
+}
@@ -0,0 +1,167 @@
+package com.github.litttlefisher.swagger.docgen.scan;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.ws.rs.Path;
+
+import org.reflections.Reflections;
+import org.reflections.util.ClasspathHelper;
+import org.reflections.util.ConfigurationBuilder;
+import org.reflections.util.FilterBuilder;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.RestController;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.github.litttlefisher.swagger.docgen.fixture.scan.InheritedMarker;
+import com.github.litttlefisher.swagger.docgen.fixture.scan.LateMarked;
+import com.github.litttlefisher.swagger.docgen.fixture.scan.MarkedBase;
+import com.github.litttlefisher.swagger.docgen.fixture.scan.MarkedChild;
+import com.github.litttlefisher.swagger.docgen.fixture.scan.MarkedGrandChild;
+import com.github.litttlefisher.swagger.docgen.fixture.scan.MarkedInterface;
+import com.github.litttlefisher.swagger.docgen.fixture.scan.MarkedInterfaceImpl;
+import com.github.litttlefisher.swagger.docgen.fixture.scan.Marker;
+import com.github.litttlefisher.swagger.docgen.fixture.scan.MetaMarked;
+import com.github.litttlefisher.swagger.docgen.fixture.scan.MetaMarker;
+import com.github.litttlefisher.swagger.docgen.fixture.scan.sub.SubPackageMarked;
+import com.github.litttlefisher.swagger.docgen.fixture.scanother.PrefixMarked;
+
+import io.swagger.annotations.Api;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * {@link ClasspathIndex}的测试，查询结果需要与原先基于{@link Reflections}的扫描一致
+ *
+ * @author littlefisher
+ */
+public class ClasspathIndexTest {
+
+    private static final String FIXTURE_PACKAGE = "com.github.litttlefisher.swagger.docgen.fixture";
+
+    private static final String SCAN_PACKAGE = FIXTURE_PACKAGE + ".scan";
+
+    /** 并发查询的线程数 */
+    private static final int QUERY_THREADS = 8;
+
+    /** 并发查询的轮数，每轮使用新的索引 */
+    private static final int QUERY_ROUNDS = 20;
+
+    private final ClassLoader classLoader = getClass().getClassLoader();
+
+    @DataProvider
+    public Object[][] annotations() {
+        List<Class<? extends Annotation>> annotations = Arrays.asList(InheritedMarker.class, Marker.class,
+            MetaMarker.class, Api.class, Path.class, RestController.class, Controller.class, ControllerAdvice.class);
+        List<Object[]> parameters = new ArrayList<>();
+        for (Class<? extends Annotation> annotation : annotations) {
+            parameters.add(new Object[] {annotation, true});
+            parameters.add(new Object[] {annotation, false});
+        }
+        return parameters.toArray(new Object[0][]);
+    }
+
+    @Test(dataProvider = "annotations")
+    public void testSameAsReflections(Class<? extends Annotation> annotation, boolean honorInherited) {
+        for (String packageName : Arrays.asList(FIXTURE_PACKAGE, SCAN_PACKAGE)) {
+            Reflections reflections = new Reflections(new ConfigurationBuilder()
+                .setUrls(ClasspathHelper.forPackage(packageName, classLoader))
+                .filterInputsBy(new FilterBuilder().includePackage(packageName + ".")));
+            Set<Class<?>> expected = reflections.getTypesAnnotatedWith(annotation, honorInherited);
+            assertEquals(query(Collections.singleton(packageName), annotation, honorInherited), expected,
+                packageName);
+        }
+    }
+
+    @Test
+    public void testHonorInherited() {
+        // @Inherited只作用到子类，不作用到接口的实现类
+        assertEquals(query(Collections.singleton(SCAN_PACKAGE), InheritedMarker.class, true),
+            classes(MarkedBase.class, MarkedChild.class, MarkedGrandChild.class, MarkedInterface.class));
+        assertEquals(query(Collections.singleton(SCAN_PACKAGE), InheritedMarker.class, false),
+            classes(MarkedBase.class, MarkedChild.class, MarkedGrandChild.class, MarkedInterface.class,
+                MarkedInterfaceImpl.class));
+
+        // 没有@Inherited的注解只匹配直接标注的类，不考虑继承时还包括元注解标注的类及所有子类
+        assertEquals(query(Collections.singleton(SCAN_PACKAGE), Marker.class, true),
+            classes(MarkedBase.class, MarkedInterface.class, MetaMarker.class, LateMarked.class,
+                SubPackageMarked.class));
+        assertEquals(query(Collections.singleton(SCAN_PACKAGE), Marker.class, false),
+            classes(MarkedBase.class, MarkedChild.class, MarkedGrandChild.class, MarkedInterface.class,
+                MarkedInterfaceImpl.class, MetaMarker.class, MetaMarked.class, LateMarked.class,
+                SubPackageMarked.class));
+    }
+
+    @Test
+    public void testPackagePrefixFiltering() {
+        Set<Class<?>> scanPackage = query(Collections.singleton(SCAN_PACKAGE), Marker.class, true);
+        assertTrue(scanPackage.contains(SubPackageMarked.class));
+        assertFalse(scanPackage.contains(PrefixMarked.class));
+
+        assertEquals(query(Collections.singleton(SCAN_PACKAGE + ".sub"), Marker.class, false),
+            Collections.singleton(SubPackageMarked.class));
+        assertEquals(query(Collections.singleton(FIXTURE_PACKAGE + ".sca"), Marker.class, false),
+            Collections.emptySet());
+        assertEquals(query(Collections.singleton(FIXTURE_PACKAGE + ".scanother"), Marker.class, false),
+            Collections.singleton(PrefixMarked.class));
+
+        // 被包含的子包不会重复扫描，结果与只查询父包一致
+        assertEquals(query(Arrays.asList(SCAN_PACKAGE + ".sub", SCAN_PACKAGE), Marker.class, false),
+            query(Collections.singleton(SCAN_PACKAGE), Marker.class, false));
+        Set<Class<?>> bothPackages = new HashSet<>(scanPackage);
+        bothPackages.add(PrefixMarked.class);
+        assertEquals(query(Arrays.asList(SCAN_PACKAGE, FIXTURE_PACKAGE + ".scanother"), Marker.class, true),
+            bothPackages);
+    }
+
+    @Test
+    public void testConcurrentQueries() throws Exception {
+        Set<Class<?>> expected = query(Collections.singleton(SCAN_PACKAGE), Marker.class, false);
+        ExecutorService executor = Executors.newFixedThreadPool(QUERY_THREADS);
+        try {
+            for (int round = 0; round < QUERY_ROUNDS; round++) {
+                // 所有线程同时查询同一个"包名@classpath条目"，只有一个线程扫描，其他线程等待同一个扫描结果
+                ClasspathIndex classpathIndex = new ClasspathIndex(null, QUERY_THREADS);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Set<Class<?>>>> futures = new ArrayList<>();
+                for (int i = 0; i < QUERY_THREADS; i++) {
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        return classpathIndex.getTypesAnnotatedWith(Collections.singleton(SCAN_PACKAGE),
+                            Marker.class, false, classLoader);
+                    }));
+                }
+                start.countDown();
+                for (Future<Set<Class<?>>> future : futures) {
+                    assertEquals(future.get(), expected);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Set<Class<?>> query(Collection<String> packageNames, Class<? extends Annotation> annotation,
+        boolean honorInherited) {
+        return new ClasspathIndex(null, 1).getTypesAnnotatedWith(packageNames, annotation, honorInherited,
+            classLoader);
+    }
+
+    private static Set<Class<?>> classes(Class<?>... classes) {
+        return new HashSet<>(Arrays.asList(classes));
+    }
+}
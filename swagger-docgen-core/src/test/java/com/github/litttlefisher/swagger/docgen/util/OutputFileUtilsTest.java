@@ -0,0 +1,86 @@
+package com.github.litttlefisher.swagger.docgen.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * {@link OutputFileUtils}的测试，写入的内容需要与直接写文件一致，内容没有变化时不改写文件
+ *
+ * @author littlefisher
+ */
+public class OutputFileUtilsTest {
+
+    /** 原文件的修改时间，用于判断文件是否被改写 */
+    private static final long OLD_LAST_MODIFIED = 1000000000000L;
+
+    private File directory;
+
+    private File file;
+
+    @BeforeMethod
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("output-file-utils").toFile();
+        file = new File(directory, "swagger.json");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Test
+    public void testWriteIfChanged() throws IOException {
+        assertTrue(write("{\"swagger\":\"2.0\"}"));
+        assertEquals(read(), "{\"swagger\":\"2.0\"}");
+        assertTrue(file.setLastModified(OLD_LAST_MODIFIED));
+
+        assertFalse(write("{\"swagger\":\"2.0\"}"));
+        assertEquals(read(), "{\"swagger\":\"2.0\"}");
+        assertEquals(file.lastModified(), OLD_LAST_MODIFIED);
+
+        // 长度相同、内容不同
+        assertTrue(write("{\"swagger\":\"3.0\"}"));
+        assertEquals(read(), "{\"swagger\":\"3.0\"}");
+        assertTrue(file.lastModified() != OLD_LAST_MODIFIED);
+
+        assertTrue(write("中文内容"));
+        assertEquals(read(), "中文内容");
+        assertEquals(directory.list(), new String[] {file.getName()});
+    }
+
+    @Test
+    public void testFailedWriteKeepsFile() throws IOException {
+        write("{\"swagger\":\"2.0\"}");
+        try {
+            OutputFileUtils.write(file, StandardCharsets.UTF_8, writer -> {
+                writer.write("{\"swa");
+                throw new IOException("failed");
+            });
+            fail();
+        } catch (IOException e) {
+            assertEquals(e.getMessage(), "failed");
+        }
+        assertEquals(read(), "{\"swagger\":\"2.0\"}");
+        assertEquals(directory.list(), new String[] {file.getName()});
+    }
+
+    private boolean write(String content) throws IOException {
+        return OutputFileUtils.write(file, StandardCharsets.UTF_8, writer -> writer.write(content));
+    }
+
+    private String read() throws IOException {
+        return FileUtils.readFileToString(file, StandardCharsets.UTF_8.name());
+    }
+}
@@ -2,7 +2,13 @@ package com.github.litttlefisher.swagger.docgen.mavenplugin;
 
 import java.io.File;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import org.apache.commons.collections4.CollectionUtils;
@@ -35,6 +41,7 @@ import com.github.litttlefisher.swagger.docgen.mavenplugin.converter.ApiSourceCo
 import com.github.litttlefisher.swagger.docgen.mavenplugin.properties.ApiSourceProperty;
 import com.github.litttlefisher.swagger.docgen.mavenplugin.properties.SwaggerToMarkupProperty;
 import com.github.litttlefisher.swagger.docgen.mavenplugin.swagger2markup.SwaggerToMarkupGenerator;
+import com.github.litttlefisher.swagger.docgen.scan.ClasspathIndex;
 
 import io.swagger.util.Json;
 
@@ -81,7 +88,7 @@ public class ApiDocumentMojo extends AbstractMojo {
     private MavenProject project;
 
     /**
-     * 编码格式
+     * 编码格式，取自project.build.sourceEncoding，用于读取source jar包中的java文件以及写入生成的文件
      */
     private String projectEncoding;
 
@@ -118,6 +125,40 @@ public class ApiDocumentMojo extends AbstractMojo {
     @Parameter(defaultValue = "${project.build.directory}", readonly = true)
     private String buildDirectory;
 
+    /**
+     * 插件版本，作为增量解析状态指纹的一部分
+     */
+    @Parameter(defaultValue = "${plugin.version}", readonly = true)
+    private String pluginVersion;
+
+    /**
+     * 并行生成apiSource的线程数，默认为1即串行生成；大于1时各apiSource在线程池中执行。
+     * <p>
+     * 注意：swagger-core的ModelConverters、SwaggerExtensions、FilterFactory均为全局单例，解析阶段（注册转换器、
+     * 扩展并读取接口）会修改这些全局状态，因此各apiSource的解析仍在同一把锁内串行执行；
+     * 只有classpath扫描、javadoc初始化、模板渲染和文件输出在锁外并行，总耗时的缩短取决于这些阶段的占比
+     */
+    @Parameter(property = "swagger.parallelThreads", defaultValue = "1")
+    private int parallelThreads = 1;
+
+    /**
+     * 是否将classpath扫描结果缓存到target目录下，下次构建时只重新扫描发生变化的jar包或class目录，默认开启
+     */
+    @Parameter(property = "swagger.scanCacheEnabled", defaultValue = "true")
+    private boolean scanCacheEnabled = true;
+
+    /**
+     * 并行扫描classpath中jar包、class目录的线程数，未配置或小于等于0时使用CPU核数，为1时串行扫描
+     */
+    @Parameter(property = "swagger.scanThreads")
+    private int scanThreads;
+
+    /**
+     * swagger-core中的{@link io.swagger.converter.ModelConverters}、{@link io.swagger.jaxrs.ext.SwaggerExtensions}、
+     * {@link io.swagger.config.FilterFactory}等均为全局单例，解析阶段必须串行访问
+     */
+    private final Object swaggerStateLock = new Object();
+
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
         initMavenParameter();
@@ -156,13 +197,91 @@ public class ApiDocumentMojo extends AbstractMojo {
                 configureObjectMapperFeatures(disabledObjectMapperFeatures, false);
             }
 
-            for (ApiSource apiSource : apiSources.stream().map(ApiSourceConverter::convert).collect(
-                Collectors.toList())) {
-                validateConfiguration(apiSource);
-                apiSource.initJavaDoc();
+            List<ApiSource> sources = apiSources.stream().map(ApiSourceConverter::convert).collect(
+                Collectors.toList());
+            // 所有apiSource共享同一个classpath注解索引，每个classpath条目在本次构建中只扫描一次
+            ClasspathIndex classpathIndex = new ClasspathIndex(
+                scanCacheEnabled && buildDirectory != null ? new File(buildDirectory) : null,
+                scanThreads > 0 ? scanThreads : Runtime.getRuntime().availableProcessors());
+            sources.stream().filter(Objects::nonNull).forEach(source -> {
+                source.setClasspathIndex(classpathIndex);
+                source.setPluginVersion(pluginVersion);
+            });
+            long start = System.currentTimeMillis();
+            List<Long> elapsedTimes;
+            if (parallelThreads > 1 && sources.size() > 1) {
+                elapsedTimes = generateSwaggerInParallel(sources);
+            } else {
+                elapsedTimes = new ArrayList<>();
+                for (ApiSource apiSource : sources) {
+                    elapsedTimes.add(generateSwagger(apiSource));
+                }
+            }
+            classpathIndex.saveCache();
+            logElapsedTimes(sources, elapsedTimes, System.currentTimeMillis() - start);
+        } catch (GenerateException e) {
+            throw new MojoFailureException(e.getMessage(), e);
+        } catch (Exception e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+    }
 
-                AbstractDocumentSource documentSource = getDocumentSource(apiSource);
+    /**
+     * 在线程池中并行生成各apiSource的swagger文件
+     *
+     * @param sources apiSource配置
+     * @return 各apiSource的生成耗时，顺序与sources一致
+     * @throws Exception 异常
+     */
+    private List<Long> generateSwaggerInParallel(List<ApiSource> sources) throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(Math.min(parallelThreads, sources.size()));
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (ApiSource apiSource : sources) {
+                futures.add(executorService.submit(() -> {
+                    ClassLoader originalClassLoader = Thread.currentThread().getContextClassLoader();
+                    try {
+                        return generateSwagger(apiSource);
+                    } finally {
+                        // ApiSource会替换当前线程的contextClassLoader，线程复用前需要还原
+                        Thread.currentThread().setContextClassLoader(originalClassLoader);
+                    }
+                }));
+            }
+            List<Long> elapsedTimes = new ArrayList<>();
+            for (Future<Long> future : futures) {
+                try {
+                    elapsedTimes.add(future.get());
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof Exception) {
+                        throw (Exception) e.getCause();
+                    }
+                    throw new MojoExecutionException(e.getCause().getMessage(), e.getCause());
+                }
+            }
+            return elapsedTimes;
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
 
+    /**
+     * 生成单个apiSource的swagger文件
+     *
+     * @param apiSource apiSource配置
+     * @return 耗时，单位毫秒
+     * @throws MojoExecutionException 异常
+     */
+    private long generateSwagger(ApiSource apiSource) throws MojoExecutionException {
+        long start = System.currentTimeMillis();
+        validateConfiguration(apiSource);
+        apiSource.initJavaDoc(projectEncoding);
+
+        AbstractDocumentSource documentSource = getDocumentSource(apiSource);
+        documentSource.loadValidClasses();
+
+        synchronized (swaggerStateLock) {
+            try {
                 documentSource.loadTypesToSkip();
                 documentSource.loadModelModifier();
                 documentSource.loadModelConverters();
@@ -170,33 +289,57 @@ public class ApiDocumentMojo extends AbstractMojo {
                     documentSource.loadModelJavaDocConverter();
                 }
                 documentSource.loadDocuments();
+            } finally {
+                // 解析完成后清理swagger的全局状态，避免各apiSource的结果依赖执行顺序
+                documentSource.resetGlobalState();
+            }
+        }
 
-                createOutputDirs(apiSource.getOutputPath());
+        if (apiSource.getJavaDocReader() != null) {
+            apiSource.getJavaDocReader().logStatistics();
+        }
 
-                if (apiSource.getTemplatePath() != null) {
-                    documentSource.toDocuments();
-                }
-                String swaggerFileName = apiSource.getSwaggerFileName();
-                documentSource.toSwaggerDocuments(apiSource.getOutputFormat(), swaggerFileName, projectEncoding);
-
-                if (apiSource.isAttachSwaggerArtifact() && apiSource.getSwaggerDirectory() != null && project != null) {
-                    String outputFormats = apiSource.getOutputFormat();
-                    if (outputFormats != null) {
-                        for (String format : outputFormats.split(SymbolConstant.COMMA)) {
-                            String classifier = ApiSource.DEFAULT_SWAGGER_FILE_NAME.equals(swaggerFileName) ?
-                                getSwaggerDirectoryName(apiSource.getSwaggerDirectory()) : swaggerFileName;
-                            File swaggerFile = new File(apiSource.getSwaggerDirectory(),
-                                swaggerFileName + SymbolConstant.PERIOD + format.toLowerCase());
-                            projectHelper.attachArtifact(project, format.toLowerCase(), classifier, swaggerFile);
-                        }
+        createOutputDirs(apiSource.getOutputPath());
+
+        if (apiSource.getTemplatePath() != null) {
+            documentSource.toDocuments();
+        }
+        String swaggerFileName = apiSource.getSwaggerFileName();
+        documentSource.toSwaggerDocuments(apiSource.getOutputFormat(), swaggerFileName, projectEncoding);
+
+        if (apiSource.isAttachSwaggerArtifact() && apiSource.getSwaggerDirectory() != null && project != null) {
+            String outputFormats = apiSource.getOutputFormat();
+            if (outputFormats != null) {
+                for (String format : outputFormats.split(SymbolConstant.COMMA)) {
+                    String classifier = ApiSource.DEFAULT_SWAGGER_FILE_NAME.equals(swaggerFileName) ?
+                        getSwaggerDirectoryName(apiSource.getSwaggerDirectory()) : swaggerFileName;
+                    File swaggerFile = new File(apiSource.getSwaggerDirectory(),
+                        swaggerFileName + SymbolConstant.PERIOD + format.toLowerCase());
+                    synchronized (swaggerStateLock) {
+                        projectHelper.attachArtifact(project, format.toLowerCase(), classifier, swaggerFile);
                     }
                 }
             }
-        } catch (GenerateException e) {
-            throw new MojoFailureException(e.getMessage(), e);
-        } catch (Exception e) {
-            throw new MojoExecutionException(e.getMessage(), e);
         }
+        return System.currentTimeMillis() - start;
+    }
+
+    /**
+     * 输出各apiSource的生成耗时以及整个生成过程的实际耗时
+     * <p>
+     * 并行生成时各apiSource的耗时包含等待解析锁的时间，相互重叠，不能相加，总耗时为从开始生成到全部完成的实际时间
+     *
+     * @param sources apiSource配置
+     * @param elapsedTimes 各apiSource的生成耗时
+     * @param wallClockTime 整个生成过程的实际耗时，单位毫秒
+     */
+    private void logElapsedTimes(List<ApiSource> sources, List<Long> elapsedTimes, long wallClockTime) {
+        for (int i = 0; i < sources.size(); i++) {
+            ApiSource apiSource = sources.get(i);
+            getLog().info(String.format("apiSource[%d] %s%s%s 生成耗时 %d ms", i, apiSource.getSwaggerDirectory(),
+                File.separator, apiSource.getSwaggerFileName(), elapsedTimes.get(i)));
+        }
+        getLog().info(String.format("共生成%d个apiSource，总耗时 %d ms", sources.size(), wallClockTime));
     }
 
     /**
@@ -25,7 +25,8 @@ public class ApiSourceConverter {
                 InfoConverter.convert(property.getInfo())).javadocEnabled(property.isJavadocEnabled())
             .jsonExampleValues(property.isJsonExampleValues()).locations(property.getLocations()).modelConverters(
                 property.getModelConverters()).modelSubstitute(property.getModelSubstitute()).operationIdFormat(
-                property.getOperationIdFormat()).outputFormat(property.getOutputFormat()).outputPath(
+                property.getOperationIdFormat()).readerThreads(property.getReaderThreads()).buildStateFile(
+                property.getBuildStateFile()).outputFormat(property.getOutputFormat()).outputPath(
                 property.getOutputPath()).removeBasePathFromEndpoints(property.isRemoveBasePathFromEndpoints()).schemes(
                 property.getSchemes()).securityDefinitions(
                 CollectionUtils.isEmpty(property.getSecurityDefinitions()) ? null :
@@ -110,6 +110,17 @@ public class ApiSourceProperty {
     @Parameter
     private boolean javadocEnabled;
 
+    /** 并行解析Controller或资源类的线程数，小于等于1时串行解析 */
+    @Parameter
+    private int readerThreads;
+
+    /**
+     * 增量解析的状态文件，配置后只重新解析字节码或依赖的类发生变化的Controller，多个apiSource需要使用不同的文件；
+     * 只支持SpringMvc，开启javadoc解析时不生效
+     */
+    @Parameter
+    private String buildStateFile;
+
     @Parameter
     private boolean useJAXBAnnotationProcessor;
 